@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EnrollmentStressTest races thousands of concurrent enrollments against
+ * courses with far fewer seats and checks that no course is oversold and
+ * that every count agrees afterwards.
+ *
+ * Each round builds a fresh CourseRegistry with a few tight courses. All
+ * tasks wait on one start gate, then each student tries every course, and
+ * every tenth student tries each course twice so the already-enrolled path
+ * (reserve a seat, then give it back) races too. After the round:
+ * - no course has more students than seats, and each full course has
+ *   exactly as many as its capacity
+ * - each course's seat count, enrollment set and the students' own course
+ *   lists agree
+ * - successful enrollStudent calls add up to the registry's total
+ *
+ * Compile and run from CourseManagementSystem:
+ *   javac -d out src/*.java benchmark/*.java
+ *   java -cp out EnrollmentStressTest [rounds] [threads]
+ *
+ * rounds defaults to 20 and threads to 64. The exit status is 1 if any
+ * check failed.
+ */
+public class EnrollmentStressTest {
+    private static final int STUDENTS = 5_000;
+    private static final int COURSES = 4;
+    private static final int CAPACITY = 50;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        System.out.printf("%d rounds: %,d students racing for %d courses of %d seats on %d threads%n",
+            rounds, STUDENTS, COURSES, CAPACITY, threads);
+        int failures = 0;
+        for (int round = 1; round <= rounds; round++) {
+            List<String> problems = runRound(threads);
+            if (problems.isEmpty()) {
+                System.out.printf("Round %d: OK%n", round);
+            } else {
+                failures++;
+                System.out.printf("Round %d: FAILED%n", round);
+                for (String problem : problems) {
+                    System.out.println("  " + problem);
+                }
+            }
+        }
+        System.out.println(failures == 0 ? "PASS" : "FAIL: " + failures + " round(s)");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one race on a fresh registry
+     * @return The failed checks, empty if the round passed
+     */
+    private static List<String> runRound(int threads) throws Exception {
+        CourseRegistry registry = new CourseRegistry();
+        Course[] courses = new Course[COURSES];
+        for (int c = 0; c < COURSES; c++) {
+            courses[c] = registry.addCourse("STRESS" + c, "Stress Course " + c, CAPACITY);
+        }
+        Student[] students = new Student[STUDENTS];
+        for (int s = 0; s < STUDENTS; s++) {
+            students[s] = new Student("Student " + s, "ST" + s);
+            registry.addStudent(students[s]);
+        }
+
+        // One task per enrollment attempt, all released at once
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            int attempts = s % 10 == 0 ? 2 : 1;
+            for (int c = 0; c < COURSES; c++) {
+                for (int a = 0; a < attempts; a++) {
+                    Student student = students[s];
+                    Course course = courses[(s + c) % COURSES];
+                    tasks.add(pool.submit(() -> {
+                        startGate.await();
+                        if (registry.enrollStudent(student, course)) {
+                            succeeded.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+            }
+        }
+        startGate.countDown();
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+
+        List<String> problems = new ArrayList<>();
+        int seatsTaken = 0;
+        for (Course course : courses) {
+            int seats = course.getCurrentEnrollment();
+            seatsTaken += seats;
+            if (seats > course.getMaximumCapacity()) {
+                problems.add(course.getCourseCode() + " oversold: " + seats + "/" + course.getMaximumCapacity());
+            } else if (seats != course.getMaximumCapacity()) {
+                problems.add(course.getCourseCode() + " has free seats left: " + seats + "/" + course.getMaximumCapacity());
+            }
+
+            int listed = registry.getEnrolledStudents(course).size();
+            int enrolled = 0;
+            for (Student student : students) {
+                if (student.isEnrolledIn(course)) {
+                    enrolled++;
+                }
+            }
+            if (listed != seats || enrolled != seats) {
+                problems.add(course.getCourseCode() + " counts disagree: seats " + seats
+                    + ", enrollment set " + listed + ", students " + enrolled);
+            }
+        }
+        if (succeeded.get() != seatsTaken) {
+            problems.add("successful enrollments " + succeeded.get() + " != seats taken " + seatsTaken);
+        }
+        if (registry.getTotalEnrollments() != seatsTaken) {
+            problems.add("registry total " + registry.getTotalEnrollments() + " != seats taken " + seatsTaken);
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,280 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RegistrationBenchmark drives a course registry with a synthetic campus
+ * and reports throughput, latency percentiles and allocation per
+ * operation, single-threaded and with many threads.
+ *
+ * Each run builds a fresh campus in its own CourseRegistry and measures,
+ * in order: addStudent, enrollStudent (every student picks distinct
+ * courses with Zipf-skewed popularity, so popular courses fill up),
+ * assignGrade for every enrollment that succeeded, findStudentById and
+ * getEnrollmentStatistics.
+ *
+ * Accepted and rejected calls are counted and timed separately, since a
+ * rejection (a full course) returns much sooner than an enrollment.
+ *
+ * Compile and run from CourseManagementSystem:
+ *   javac -d out src/*.java benchmark/*.java
+ *   java -Xmx8g -cp out RegistrationBenchmark [campus] [threads] [zipf]
+ *
+ * campus is small (10K students, 1K courses), medium (100K, 10K),
+ * large (1M, 50K) or "students:courses"; the default is medium.
+ * threads defaults to the number of processors; zipf is the popularity
+ * skew exponent, default 1.0. A run at a tenth of the size is done first
+ * to warm up the JIT and is not reported.
+ */
+public class RegistrationBenchmark {
+    private static final int COURSES_PER_STUDENT = 4;
+
+    private final int studentCount;
+    private final int courseCount;
+    private final double zipfExponent;
+
+    /**
+     * Samples course positions with probability proportional to 1/rank^s
+     */
+    static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                total += 1.0 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = total;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        int next() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * One measured operation: called with the operation number, returns
+     * false when the registry rejected it
+     */
+    interface Op {
+        boolean run(int i);
+    }
+
+    RegistrationBenchmark(int studentCount, int courseCount, double zipfExponent) {
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.zipfExponent = zipfExponent;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String campus = args.length > 0 ? args[0] : "medium";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double zipf = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+
+        int students;
+        int courses;
+        switch (campus) {
+            case "small":
+                students = 10_000;
+                courses = 1_000;
+                break;
+            case "medium":
+                students = 100_000;
+                courses = 10_000;
+                break;
+            case "large":
+                students = 1_000_000;
+                courses = 50_000;
+                break;
+            default:
+                String[] sizes = campus.split(":");
+                students = Integer.parseInt(sizes[0]);
+                courses = Integer.parseInt(sizes[1]);
+        }
+
+        System.out.printf("Campus: %,d students, %,d courses, %d courses per student, zipf %.2f%n",
+            students, courses, COURSES_PER_STUDENT, zipf);
+        new RegistrationBenchmark(Math.max(1, students / 10), Math.max(1, courses / 10), zipf).run(threads, false);
+        new RegistrationBenchmark(students, courses, zipf).run(1, true);
+        if (threads > 1) {
+            new RegistrationBenchmark(students, courses, zipf).run(threads, true);
+        }
+    }
+
+    /**
+     * Builds a fresh campus and measures every operation
+     * @param threads The number of threads issuing operations
+     * @param report false to run silently, for warm-up
+     */
+    void run(int threads, boolean report) throws Exception {
+        CourseRegistry registry = new CourseRegistry();
+        ZipfSampler popularity = new ZipfSampler(courseCount, zipfExponent);
+
+        // Courses are set up unmeasured; capacity leaves the popular ones oversubscribed
+        Course[] courses = new Course[courseCount];
+        int capacity = Math.max(1, studentCount * COURSES_PER_STUDENT / courseCount * 2);
+        for (int c = 0; c < courseCount; c++) {
+            courses[c] = registry.addCourse("C" + c, "Course " + c, capacity);
+        }
+        Student[] students = new Student[studentCount];
+        int perStudent = Math.min(COURSES_PER_STUDENT, courseCount);
+        Course[][] picks = new Course[studentCount][perStudent];
+        for (int s = 0; s < studentCount; s++) {
+            for (int k = 0; k < perStudent; k++) {
+                picks[s][k] = courses[nextDistinct(popularity, courses, picks[s], k)];
+            }
+        }
+        if (report) {
+            System.out.printf("%n%d thread(s)%n", threads);
+            System.out.printf("%-24s %10s %10s %12s %9s %9s %9s %9s %9s %10s%n",
+                "Operation", "Accepted", "Rejected", "Ops/s", "p50 us", "p99 us", "p99.9 us",
+                "Rej p50", "Rej p99", "Bytes/op");
+        }
+
+        int enrollments = studentCount * perStudent;
+        measure("addStudent", threads, studentCount, report, i -> {
+            students[i] = new Student("Student " + i, "S" + i);
+            return registry.addStudent(students[i]);
+        });
+        boolean[] enrolled = new boolean[enrollments];
+        measure("enrollStudent", threads, enrollments, report,
+            i -> enrolled[i] = registry.enrollStudent(students[i / perStudent],
+                                                      picks[i / perStudent][i % perStudent]));
+
+        // Only enrollments that succeeded can be graded
+        int[] graded = new int[enrollments];
+        int gradedCount = 0;
+        for (int i = 0; i < enrollments; i++) {
+            if (enrolled[i]) {
+                graded[gradedCount++] = i;
+            }
+        }
+        measure("assignGrade", threads, gradedCount, report,
+            i -> registry.assignGrade(students[graded[i] / perStudent],
+                                      picks[graded[i] / perStudent][graded[i] % perStudent], i % 101));
+        String[] ids = new String[studentCount];
+        for (int s = 0; s < studentCount; s++) {
+            ids[s] = "S" + s;
+        }
+        measure("findStudentById", threads, studentCount * 4, report,
+            i -> registry.findStudentById(ids[ThreadLocalRandom.current().nextInt(studentCount)]) != null);
+        measure("getEnrollmentStatistics", threads, Math.max(1000, studentCount / 10), report,
+            i -> registry.getEnrollmentStatistics() != null);
+    }
+
+    /**
+     * Draws a course position not already among a student's first picks
+     * @param taken The student's picks so far
+     * @param count How many of them are filled in
+     * @return The position of a course the student has not picked
+     */
+    private static int nextDistinct(ZipfSampler popularity, Course[] courses, Course[] taken, int count) {
+        while (true) {
+            int position = popularity.next();
+            boolean repeat = false;
+            for (int k = 0; k < count && !repeat; k++) {
+                repeat = taken[k] == courses[position];
+            }
+            if (!repeat) {
+                return position;
+            }
+        }
+    }
+
+    /**
+     * Runs operations 0..count-1 across threads, each thread claiming
+     * chunks of operation numbers, and prints one result line
+     */
+    private static void measure(String name, int threads, int count, boolean report, Op op) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram rejectedLatency = new LatencyHistogram();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong allocated = new AtomicLong();
+        int chunk = 256;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                long bytesBefore = allocatedBytes();
+                long localRejected = 0;
+                for (int from = next.getAndAdd(chunk); from < count; from = next.getAndAdd(chunk)) {
+                    int to = Math.min(count, from + chunk);
+                    for (int i = from; i < to; i++) {
+                        long opStart = System.nanoTime();
+                        boolean accepted = op.run(i);
+                        long opNanos = System.nanoTime() - opStart;
+                        if (accepted) {
+                            latency.record(opNanos);
+                        } else {
+                            rejectedLatency.record(opNanos);
+                            localRejected++;
+                        }
+                    }
+                }
+                rejected.addAndGet(localRejected);
+                allocated.addAndGet(allocatedBytes() - bytesBefore);
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        if (report) {
+            LatencyHistogram.Snapshot snapshot = latency.snapshot();
+            LatencyHistogram.Snapshot rejections = rejectedLatency.snapshot();
+            System.out.printf("%-24s %,10d %,10d %,12.0f %9s %9s %9s %9s %9s %,10.0f%n",
+                name, count - rejected.get(), rejected.get(), count / (elapsed / 1e9),
+                micros(snapshot, 50), micros(snapshot, 99), micros(snapshot, 99.9),
+                micros(rejections, 50), micros(rejections, 99), (double) allocated.get() / Math.max(1, count));
+        }
+    }
+
+    /**
+     * Formats a latency percentile in microseconds, or "-" if nothing was recorded
+     */
+    private static String micros(LatencyHistogram.Snapshot snapshot, double percentile) {
+        if (snapshot.getCount() == 0) {
+            return "-";
+        }
+        return String.format("%.2f", snapshot.getPercentile(percentile) / 1e3);
+    }
+
+    /**
+     * Gets the bytes allocated so far by the current thread, or 0 if the
+     * JVM cannot report it
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -1,3 +1,7 @@
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
@@ -16,6 +20,16 @@ public class AdministratorInterface {
      * Main method to start the administrator interface
      */
     public static void main(String[] args) {
+        // Headless mode: serve the system over HTTP instead of the menu
+        if (args.length > 0 && args[0].equals("--server")) {
+            try {
+                CourseHttpServer.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                System.out.println("Error: Could not start server: " + e.getMessage());
+            }
+            return;
+        }
+
         System.out.println("========================================");
         System.out.println("Course Enrollment and Grade Management System");
         System.out.println("========================================\n");
@@ -52,6 +66,12 @@ public class AdministratorInterface {
                     displayEnrollmentStatistics();
                     break;
                 case 9:
+                    importEnrollmentsFromCsv();
+                    break;
+                case 10:
+                    displayGradeDistribution();
+                    break;
+                case 11:
                     running = false;
                     System.out.println("\nThank you for using the Course Management System. Goodbye!");
                     break;
@@ -78,9 +98,11 @@ public class AdministratorInterface {
         System.out.println("6. Display All Courses");
         System.out.println("7. Display All Students");
         System.out.println("8. Display Enrollment Statistics");
-        System.out.println("9. Exit");
+        System.out.println("9. Import Enrollments from CSV");
+        System.out.println("10. Display Grade Distribution Report");
+        System.out.println("11. Exit");
         System.out.println("========================================");
-        System.out.print("Enter your choice (1-9): ");
+        System.out.print("Enter your choice (1-11): ");
     }
 
     /**
@@ -290,7 +312,7 @@ public class AdministratorInterface {
         System.out.println("Student: " + student.getName() + " (ID: " + student.getStudentId() + ")");
         System.out.println("\nCourse Grades:");
 
-        List<Course> enrolledCourses = student.getEnrolledCourses();
+        List<Course> enrolledCourses = student.getEnrolledCoursesView();
         if (enrolledCourses.isEmpty()) {
             System.out.println("No courses enrolled.");
         } else {
@@ -313,7 +335,7 @@ public class AdministratorInterface {
      */
     private static void displayAllCourses() {
         System.out.println("\n--- All Courses ---");
-        List<Course> courses = CourseManagement.getAllCourses();
+        List<Course> courses = CourseManagement.getCoursesView();
 
         if (courses.isEmpty()) {
             System.out.println("No courses available.");
@@ -329,7 +351,7 @@ public class AdministratorInterface {
      */
     private static void displayAllStudents() {
         System.out.println("\n--- All Students ---");
-        List<Student> students = CourseManagement.getAllStudents();
+        List<Student> students = CourseManagement.getStudentsView();
 
         if (students.isEmpty()) {
             System.out.println("No students registered.");
@@ -340,11 +362,45 @@ public class AdministratorInterface {
         }
     }
 
+    /**
+     * Handles bulk enrollment from a CSV file of studentId,courseCode rows
+     */
+    private static void importEnrollmentsFromCsv() {
+        System.out.println("\n--- Import Enrollments from CSV ---");
+
+        System.out.print("Enter CSV file path: ");
+        String path = scanner.nextLine().trim();
+
+        if (path.isEmpty()) {
+            System.out.println("Error: File path cannot be empty.");
+            return;
+        }
+
+        try (Reader reader = new FileReader(path)) {
+            BatchEnrollmentReport report = EnrollmentCsvImporter.importEnrollments(reader);
+            System.out.println("Import finished.");
+            System.out.print(report);
+            for (String sample : report.getFailureSamples()) {
+                System.out.println("  " + sample);
+            }
+        } catch (IOException e) {
+            System.out.println("Error: Could not read file: " + e.getMessage());
+        }
+    }
+
     /**
      * Displays enrollment statistics
      */
     private static void displayEnrollmentStatistics() {
         System.out.println("\n--- Enrollment Statistics ---");
-        System.out.println(CourseManagement.getEnrollmentStatistics());
+        System.out.println(CourseManagement.getStatisticsSnapshot());
+    }
+
+    /**
+     * Displays grade statistics and letter counts for every course
+     */
+    private static void displayGradeDistribution() {
+        System.out.println("\n--- Grade Distribution Report ---");
+        System.out.print(CourseManagement.getGradeDistributionReport());
     }
 }
\ No newline at end of file
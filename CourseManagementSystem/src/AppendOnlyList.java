@@ -0,0 +1,74 @@
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * AppendOnlyList is a growable list that never moves or removes elements.
+ * 
+ * Elements live in fixed-size chunks, so growing never copies existing
+ * elements. Appends are serialized on the list; reads take no lock. The
+ * size is published last, so a reader always sees a consistent prefix of
+ * the list. That makes it safe to hand out the list itself as a read-only,
+ * zero-copy view.
+ * 
+ * @param <T> The element type
+ */
+public class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks = new Object[4][];
+    private volatile int size = 0;
+
+    /**
+     * Appends an element to the end of the list
+     * @param element The element to append
+     * @return The index the element was stored at
+     */
+    public synchronized int append(T element) {
+        int index = size;
+        int chunk = index >>> CHUNK_SHIFT;
+        Object[][] current = chunks;
+        if (chunk == current.length) {
+            Object[][] grown = new Object[current.length * 2][];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new Object[CHUNK_SIZE];
+        }
+        current[chunk][index & CHUNK_MASK] = element;
+        chunks = current;
+        size = index + 1; // Publish the element
+        return index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every element present when the call starts, without allocating
+     * @param action The action to run for each element
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        int end = size;
+        Object[][] current = chunks;
+        for (int i = 0; i < end; i++) {
+            action.accept((T) current[i >>> CHUNK_SHIFT][i & CHUNK_MASK]);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchEnrollmentReport summarises the outcome of a bulk enrollment.
+ * 
+ * Instead of one result object per request, the report keeps a success
+ * count, a failure count per reason and a small sample of failed lines,
+ * so it stays compact even for hundreds of thousands of requests.
+ */
+public class BatchEnrollmentReport {
+    /**
+     * Reasons an individual enrollment in a batch can fail
+     */
+    public enum FailureReason {
+        INVALID_ROW,
+        UNKNOWN_STUDENT,
+        UNKNOWN_COURSE,
+        COURSE_FULL,
+        WAITLIST_NOT_EMPTY,
+        ALREADY_ENROLLED,
+        TIME_CONFLICT,
+        MISSING_PREREQUISITES
+    }
+
+    // Maximum number of failed lines kept for display
+    private static final int MAX_SAMPLES = 50;
+
+    private long enrolled;
+    private final long[] failures = new long[FailureReason.values().length];
+    private final List<String> failureSamples = new ArrayList<>();
+
+    /**
+     * Records a successful enrollment
+     */
+    void recordSuccess() {
+        enrolled++;
+    }
+
+    /**
+     * Records a failed enrollment
+     * @param reason Why the enrollment failed
+     * @param lineNumber The source line of the request
+     * @param studentId The student ID of the request
+     * @param courseCode The course code of the request
+     */
+    void recordFailure(FailureReason reason, long lineNumber, String studentId, String courseCode) {
+        failures[reason.ordinal()]++;
+        if (failureSamples.size() < MAX_SAMPLES) {
+            failureSamples.add("line " + lineNumber + ": " + studentId + "," + courseCode + " -> " + reason);
+        }
+    }
+
+    /**
+     * Adds the counts and samples of another report to this one
+     * @param other The report to merge in
+     */
+    void merge(BatchEnrollmentReport other) {
+        enrolled += other.enrolled;
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] += other.failures[i];
+        }
+        for (String sample : other.failureSamples) {
+            if (failureSamples.size() >= MAX_SAMPLES) {
+                break;
+            }
+            failureSamples.add(sample);
+        }
+    }
+
+    /**
+     * Gets the number of successful enrollments
+     * @return The success count
+     */
+    public long getEnrolledCount() {
+        return enrolled;
+    }
+
+    /**
+     * Gets the number of failures for one reason
+     * @param reason The failure reason
+     * @return The failure count for that reason
+     */
+    public long getFailureCount(FailureReason reason) {
+        return failures[reason.ordinal()];
+    }
+
+    /**
+     * Gets the total number of failed enrollments
+     * @return The failure count across all reasons
+     */
+    public long getTotalFailures() {
+        long total = 0;
+        for (long count : failures) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets a sample of the failed lines (at most 50)
+     * @return Descriptions of failed lines
+     */
+    public List<String> getFailureSamples() {
+        return Collections.unmodifiableList(failureSamples);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("Enrolled: ").append(enrolled).append("\n");
+        report.append("Failed: ").append(getTotalFailures()).append("\n");
+        for (FailureReason reason : FailureReason.values()) {
+            if (failures[reason.ordinal()] > 0) {
+                report.append("  ").append(reason).append(": ")
+                      .append(failures[reason.ordinal()]).append("\n");
+            }
+        }
+        return report.toString();
+    }
+}
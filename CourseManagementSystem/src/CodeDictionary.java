@@ -0,0 +1,71 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CodeDictionary interns course codes and student IDs as compact int
+ * handles.
+ *
+ * Each distinct string gets the next handle, starting at 0, the first
+ * time it is interned, and keeps it for the life of the dictionary. Every
+ * CourseRegistry has one dictionary for its course codes and one for its
+ * student IDs, and interns a string only when it registers a course or
+ * student, so a dictionary holds exactly its registry's codes and IDs and
+ * is dropped with it. A string is hashed once where it enters the
+ * registry (a lookup by code or ID); after that the registry indexes
+ * courses and students by handle.
+ *
+ * Lookups never lock. New strings are added under the dictionary's lock
+ * so handles stay dense.
+ */
+public class CodeDictionary {
+    private final Map<String, Integer> handles = new ConcurrentHashMap<>();
+    private final AppendOnlyList<String> values = new AppendOnlyList<>();
+
+    /**
+     * Gets the handle of a string, assigning the next one if it is new
+     * @param value The code or ID
+     * @return The handle, or -1 if the value is null
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer handle = handles.get(value);
+        if (handle != null) {
+            return handle;
+        }
+        synchronized (this) {
+            return handles.computeIfAbsent(value, v -> values.append(v));
+        }
+    }
+
+    /**
+     * Gets the handle of a string without adding it
+     * @param value The code or ID
+     * @return The handle, or -1 if the value is null or was never interned
+     */
+    public int lookup(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer handle = handles.get(value);
+        return handle == null ? -1 : handle;
+    }
+
+    /**
+     * Gets the string a handle stands for
+     * @param handle The handle
+     * @return The shared instance of the code or ID
+     */
+    public String decode(int handle) {
+        return values.get(handle);
+    }
+
+    /**
+     * Gets the number of interned strings
+     * @return The size of the dictionary, one more than the highest handle
+     */
+    public int size() {
+        return values.size();
+    }
+}
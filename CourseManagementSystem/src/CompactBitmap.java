@@ -0,0 +1,421 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * CompactBitmap is a set of non-negative ints in the style of a roaring
+ * bitmap.
+ * 
+ * Values are split by their high 16 bits into containers. A sparse
+ * container is a sorted array of the low 16 bits. Once it holds more than
+ * 4096 values it becomes a dense 65536-bit bitmap, which is then smaller
+ * than the array. Membership checks are a binary search over at most a few
+ * containers plus an O(1) or O(log 4096) probe. Intersections and unions
+ * work container by container.
+ * 
+ * This class is not thread-safe; callers guard mutable instances or treat
+ * them as immutable once published.
+ */
+public class CompactBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /**
+     * One 65536-value block of the bitmap
+     */
+    private interface Container {
+        Container add(char low);
+        Container remove(char low);
+        boolean contains(char low);
+        int cardinality();
+        void forEach(int high, IntConsumer action);
+        Container copy();
+    }
+
+    /**
+     * Sparse container: sorted low bits
+     */
+    private static final class ArrayContainer implements Container {
+        char[] values;
+        int size;
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public Container add(char low) {
+            int at = Arrays.binarySearch(values, 0, size, low);
+            if (at >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return toBitmap().add(low);
+            }
+            at = -at - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, size * 2)));
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            int at = Arrays.binarySearch(values, 0, size, low);
+            if (at >= 0) {
+                System.arraycopy(values, at + 1, values, at, size - at - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, size)), size);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Dense container: one bit per low value
+     */
+    private static final class BitmapContainer implements Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                words[low >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_LIMIT / 2) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer action) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[Math.max(1, cardinality)];
+            int size = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[size++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+    }
+
+    // Containers sorted by their high 16 bits
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int containerCount;
+
+    /**
+     * Adds a value to the set
+     * @param value A non-negative int
+     */
+    public void add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int at = Arrays.binarySearch(keys, 0, containerCount, high);
+        if (at >= 0) {
+            containers[at] = containers[at].add((char) value);
+            return;
+        }
+        at = -at - 1;
+        if (containerCount == keys.length) {
+            keys = Arrays.copyOf(keys, containerCount * 2);
+            containers = Arrays.copyOf(containers, containerCount * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, containerCount - at);
+        System.arraycopy(containers, at, containers, at + 1, containerCount - at);
+        keys[at] = high;
+        containers[at] = new ArrayContainer(new char[] {(char) value}, 1);
+        containerCount++;
+    }
+
+    /**
+     * Removes a value from the set
+     * @param value The value to remove
+     */
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int at = Arrays.binarySearch(keys, 0, containerCount, (char) (value >>> 16));
+        if (at < 0) {
+            return;
+        }
+        containers[at] = containers[at].remove((char) value);
+        if (containers[at].cardinality() == 0) {
+            System.arraycopy(keys, at + 1, keys, at, containerCount - at - 1);
+            System.arraycopy(containers, at + 1, containers, at, containerCount - at - 1);
+            containerCount--;
+            containers[containerCount] = null;
+        }
+    }
+
+    /**
+     * Checks whether a value is in the set
+     * @param value The value to check
+     * @return true if present
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int at = Arrays.binarySearch(keys, 0, containerCount, (char) (value >>> 16));
+        return at >= 0 && containers[at].contains((char) value);
+    }
+
+    /**
+     * Gets the number of values in the set
+     * @return The cardinality
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < containerCount; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether the set is empty
+     * @return true if no values are present
+     */
+    public boolean isEmpty() {
+        return containerCount == 0;
+    }
+
+    /**
+     * Visits every value in ascending order
+     * @param action Receives each value
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < containerCount; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Creates an independent copy of the set
+     * @return The copy
+     */
+    public CompactBitmap copy() {
+        CompactBitmap copy = new CompactBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, containerCount));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < containerCount; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.containerCount = containerCount;
+        return copy;
+    }
+
+    /**
+     * Checks whether every value of this set is also in another set
+     * @param other The candidate superset
+     * @return true if this set is a subset of other
+     */
+    public boolean isSubsetOf(CompactBitmap other) {
+        for (int i = 0; i < containerCount; i++) {
+            int at = Arrays.binarySearch(other.keys, 0, other.containerCount, keys[i]);
+            if (at < 0) {
+                return false;
+            }
+            Container mine = containers[i];
+            Container theirs = other.containers[at];
+            if (mine.cardinality() > theirs.cardinality()) {
+                return false;
+            }
+            boolean[] subset = {true};
+            mine.forEach(0, low -> {
+                if (subset[0] && !theirs.contains((char) low)) {
+                    subset[0] = false;
+                }
+            });
+            if (!subset[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the intersection of two sets
+     * @param a The first set
+     * @param b The second set
+     * @return A new set holding values present in both
+     */
+    public static CompactBitmap and(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.containerCount && j < b.containerCount) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container intersection = intersect(a.containers[i], b.containers[j]);
+                if (intersection.cardinality() > 0) {
+                    result.appendContainer(a.keys[i], intersection);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the union of two sets
+     * @param a The first set
+     * @param b The second set
+     * @return A new set holding values present in either
+     */
+    public static CompactBitmap or(CompactBitmap a, CompactBitmap b) {
+        CompactBitmap result = new CompactBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.containerCount || j < b.containerCount) {
+            if (j >= b.containerCount || (i < a.containerCount && a.keys[i] < b.keys[j])) {
+                result.appendContainer(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.containerCount || a.keys[i] > b.keys[j]) {
+                result.appendContainer(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                Container union = a.containers[i].copy();
+                Container[] target = {union};
+                b.containers[j].forEach(0, low -> target[0] = target[0].add((char) low));
+                result.appendContainer(a.keys[i], target[0]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Intersects two containers, choosing the cheapest strategy for their types
+     */
+    private static Container intersect(Container a, Container b) {
+        if (a instanceof BitmapContainer && b instanceof BitmapContainer) {
+            long[] x = ((BitmapContainer) a).words;
+            long[] y = ((BitmapContainer) b).words;
+            long[] words = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                words[w] = x[w] & y[w];
+                cardinality += Long.bitCount(words[w]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_LIMIT ? bitmap.toArray() : bitmap;
+        }
+        // Walk the smaller container and probe the other
+        Container small = a.cardinality() <= b.cardinality() ? a : b;
+        Container large = small == a ? b : a;
+        char[] values = new char[Math.max(1, small.cardinality())];
+        int[] size = {0};
+        small.forEach(0, low -> {
+            if (large.contains((char) low)) {
+                values[size[0]++] = (char) low;
+            }
+        });
+        return new ArrayContainer(values, size[0]);
+    }
+
+    /**
+     * Appends a container whose key is greater than every existing key
+     */
+    private void appendContainer(char key, Container container) {
+        if (containerCount == keys.length) {
+            keys = Arrays.copyOf(keys, containerCount * 2);
+            containers = Arrays.copyOf(containers, containerCount * 2);
+        }
+        keys[containerCount] = key;
+        containers[containerCount] = container;
+        containerCount++;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + value);
+        }
+    }
+}
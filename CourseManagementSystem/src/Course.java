@@ -1,19 +1,50 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Course class represents a university course with course information
  * and enrollment capacity.
  * 
- * This class uses a static variable to track total enrolled students
- * across all course instances, demonstrating the use of class-level data.
+ * Enrollment totals are kept by the CourseRegistry a course belongs to,
+ * so separate registries never share a count.
+ * 
+ * Seats are reserved with a compare-and-set loop on the enrollment counter,
+ * so concurrent enrollments can never push a course past its capacity.
  */
 public class Course {
     // Private instance variables for encapsulation
     private String courseCode;
     private String courseName;
-    private int maximumCapacity;
-    private int currentEnrollment;
-    
-    // Static variable to track total enrolled students across all courses
-    private static int totalEnrolledStudents = 0;
+
+    // Handle of the course code in its registry's dictionary, -1 until registered
+    private volatile int codeHandle = -1;
+    private volatile int maximumCapacity;
+    private final AtomicInteger currentEnrollment;
+
+    // Dense position of this course in its registry, or -1 if not registered
+    private volatile int courseIndex = -1;
+
+    // Registry this course was added to, or null if not registered
+    private volatile CourseRegistry registry;
+
+    // Weekly meeting times
+    private final List<MeetingSlot> meetingSlots = new CopyOnWriteArrayList<>();
+
+    // Students waiting for a seat, in arrival order
+    private final CourseWaitlist waitlist;
+
+    // Fill histogram bucket this course is counted in, or -1 if not yet counted
+    private int statisticsBucket = -1;
+
+    // Dense indexes of enrolled students, guarded by the bitmap itself
+    private final CompactBitmap enrolledStudents = new CompactBitmap();
+
+    // Running grade totals for the course average, guarded by this course
+    private double gradeSum;
+    private int gradeCount;
 
     /**
      * Constructor to create a new Course object
@@ -25,7 +56,8 @@ public class Course {
         this.courseCode = courseCode;
         this.courseName = courseName;
         this.maximumCapacity = maximumCapacity;
-        this.currentEnrollment = 0;
+        this.currentEnrollment = new AtomicInteger(0);
+        this.waitlist = new CourseWaitlist(this);
     }
 
     // Getter methods for accessing course information
@@ -38,6 +70,22 @@ public class Course {
         return courseCode;
     }
 
+    /**
+     * Gets the handle of the course code in its registry's dictionary
+     * @return The handle, or -1 if the course is not registered
+     */
+    public int getCodeHandle() {
+        return codeHandle;
+    }
+
+    /**
+     * Sets the handle assigned by the registry
+     * @param codeHandle The code's handle
+     */
+    void setCodeHandle(int codeHandle) {
+        this.codeHandle = codeHandle;
+    }
+
     /**
      * Gets the course name
      * @return The course name
@@ -54,12 +102,168 @@ public class Course {
         return maximumCapacity;
     }
 
+    /**
+     * Gets the weekly meeting times of the course
+     * @return Unmodifiable view of the meeting slots
+     */
+    public List<MeetingSlot> getMeetingSlots() {
+        return Collections.unmodifiableList(meetingSlots);
+    }
+
+    /**
+     * Adds a weekly meeting time, unless it overlaps one the course already
+     * has. Meeting times are fixed once students have enrolled, so every
+     * student's timetable was checked against the full set of slots.
+     * @param slot The meeting slot to add
+     * @return true if added, false if it overlaps or students are enrolled
+     */
+    synchronized boolean addMeetingSlot(MeetingSlot slot) {
+        if (!acceptsMeetingSlot(slot)) {
+            return false;
+        }
+        meetingSlots.add(slot);
+        return true;
+    }
+
+    /**
+     * Checks whether addMeetingSlot would add a slot
+     * @param slot The meeting slot to check
+     * @return false if it overlaps or students are enrolled
+     */
+    synchronized boolean acceptsMeetingSlot(MeetingSlot slot) {
+        if (currentEnrollment.get() > 0) {
+            return false;
+        }
+        for (MeetingSlot existing : meetingSlots) {
+            if (existing.overlaps(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the waitlist of students waiting for a seat
+     * @return The course's waitlist
+     */
+    public CourseWaitlist getWaitlist() {
+        return waitlist;
+    }
+
+    /**
+     * Gets the share of seats taken
+     * @return The fill ratio (0.0 to 1.0)
+     */
+    public double getFillRatio() {
+        int capacity = maximumCapacity;
+        return capacity <= 0 ? 0.0 : (double) currentEnrollment.get() / capacity;
+    }
+
+    /**
+     * Gets the fill histogram bucket this course is counted in
+     * @return The bucket, or -1 if not yet counted
+     */
+    int getStatisticsBucket() {
+        return statisticsBucket;
+    }
+
+    /**
+     * Sets the fill histogram bucket this course is counted in
+     * @param statisticsBucket The bucket
+     */
+    void setStatisticsBucket(int statisticsBucket) {
+        this.statisticsBucket = statisticsBucket;
+    }
+
+    /**
+     * Raises the maximum capacity of the course
+     * @param additionalSeats The number of seats to add
+     */
+    public synchronized void increaseCapacity(int additionalSeats) {
+        if (additionalSeats > 0) {
+            maximumCapacity += additionalSeats;
+        }
+    }
+
     /**
      * Gets the current enrollment count
      * @return The current enrollment count
      */
     public int getCurrentEnrollment() {
-        return currentEnrollment;
+        return currentEnrollment.get();
+    }
+
+    /**
+     * Gets the dense position assigned when the course was registered
+     * @return The course index, or -1 if not registered
+     */
+    int getCourseIndex() {
+        return courseIndex;
+    }
+
+    /**
+     * Sets the dense position assigned by the registry
+     * @param courseIndex The course index
+     */
+    void setCourseIndex(int courseIndex) {
+        this.courseIndex = courseIndex;
+    }
+
+    /**
+     * Gets the registry this course was added to
+     * @return The owning registry, or null if not registered
+     */
+    CourseRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Sets the registry this course was added to
+     * @param registry The owning registry
+     */
+    void setRegistry(CourseRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records a registered student as enrolled in this course
+     * @param studentIndex The student's dense index
+     */
+    void addEnrolledStudent(int studentIndex) {
+        synchronized (enrolledStudents) {
+            enrolledStudents.add(studentIndex);
+        }
+    }
+
+    /**
+     * Removes a registered student from this course's enrollment set
+     * @param studentIndex The student's dense index
+     */
+    void removeEnrolledStudent(int studentIndex) {
+        synchronized (enrolledStudents) {
+            enrolledStudents.remove(studentIndex);
+        }
+    }
+
+    /**
+     * Checks whether a registered student is enrolled in this course
+     * @param studentIndex The student's dense index
+     * @return true if enrolled
+     */
+    boolean hasEnrolledStudent(int studentIndex) {
+        synchronized (enrolledStudents) {
+            return enrolledStudents.contains(studentIndex);
+        }
+    }
+
+    /**
+     * Copies the set of enrolled students' dense indexes
+     * @return A snapshot of the enrolled student set
+     */
+    CompactBitmap getEnrolledStudentSet() {
+        synchronized (enrolledStudents) {
+            return enrolledStudents.copy();
+        }
     }
 
     /**
@@ -67,51 +271,120 @@ public class Course {
      * @return true if there is space, false otherwise
      */
     public boolean hasCapacity() {
-        return currentEnrollment < maximumCapacity;
+        return currentEnrollment.get() < maximumCapacity;
     }
 
     /**
      * Increments the current enrollment for this course
      */
     public void incrementEnrollment() {
-        if (hasCapacity()) {
-            currentEnrollment++;
+        tryReserveSeat();
+    }
+
+    /**
+     * Atomically reserves one seat in this course.
+     * The capacity check and the increment happen in a single
+     * compare-and-set, so two threads can never take the last seat.
+     * @return true if a seat was reserved, false if the course is full
+     */
+    public boolean tryReserveSeat() {
+        while (true) {
+            int enrolled = currentEnrollment.get();
+            if (enrolled >= maximumCapacity) {
+                return false;
+            }
+            if (currentEnrollment.compareAndSet(enrolled, enrolled + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically reserves up to the requested number of seats in one step.
+     * Used by batch enrollment to claim seats for a whole group at once.
+     * @param requested The number of seats wanted
+     * @return The number of seats actually reserved (0 if the course is full)
+     */
+    public int tryReserveSeats(int requested) {
+        if (requested <= 0) {
+            return 0;
+        }
+        while (true) {
+            int enrolled = currentEnrollment.get();
+            int granted = Math.min(requested, maximumCapacity - enrolled);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (currentEnrollment.compareAndSet(enrolled, enrolled + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Releases a number of previously reserved seats
+     * @param count The number of seats to give back
+     */
+    public void releaseSeats(int count) {
+        if (count > 0) {
+            currentEnrollment.addAndGet(-count);
         }
     }
 
     /**
-     * Static method to increment total enrolled students across all courses
-     * Demonstrates the use of static methods for class-level operations
+     * Releases a previously reserved seat, for example when the
+     * enrollment it was reserved for could not be completed
      */
-    public static void incrementTotalEnrolledStudents() {
-        totalEnrolledStudents++;
+    public void releaseSeat() {
+        while (true) {
+            int enrolled = currentEnrollment.get();
+            if (enrolled <= 0) {
+                return;
+            }
+            if (currentEnrollment.compareAndSet(enrolled, enrolled - 1)) {
+                return;
+            }
+        }
     }
 
     /**
-     * Static method to retrieve the total number of enrolled students
-     * across all course instances.
-     * 
-     * This demonstrates how static methods can access and return static variables
-     * to provide class-level information.
-     * 
-     * @return The total number of enrolled students across all courses
+     * Updates the running grade totals when a student's grade is set.
+     * Called by Student.recordGrade with the grade it replaced, if any.
+     * @param previous The grade being overwritten, or NaN for a new grade
+     * @param grade The new grade
      */
-    public static int getTotalEnrolledStudents() {
-        return totalEnrolledStudents;
+    synchronized void recordGrade(double previous, double grade) {
+        if (Double.isNaN(previous)) {
+            gradeSum += grade;
+            gradeCount++;
+        } else {
+            gradeSum += grade - previous;
+        }
+    }
+
+    /**
+     * Gets the average grade of all graded students in this course
+     * @return The average grade, or 0.0 if no grades assigned
+     */
+    public synchronized double getAverageGrade() {
+        if (gradeCount == 0) {
+            return 0.0;
+        }
+        return gradeSum / gradeCount;
     }
 
     /**
-     * Static method to reset the total enrolled students counter
-     * Useful for testing or system resets
+     * Gets the number of students graded in this course
+     * @return The number of grades recorded
      */
-    public static void resetTotalEnrolledStudents() {
-        totalEnrolledStudents = 0;
+    public synchronized int getGradedCount() {
+        return gradeCount;
     }
 
     @Override
     public String toString() {
         return "Course{Code='" + courseCode + "', Name='" + courseName + 
-               "', Capacity=" + currentEnrollment + "/" + maximumCapacity + "}";
+               "', Capacity=" + currentEnrollment.get() + "/" + maximumCapacity + "}";
     }
 
     @Override
@@ -119,11 +392,11 @@ public class Course {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Course course = (Course) obj;
-        return courseCode.equals(course.courseCode);
+        return Objects.equals(courseCode, course.courseCode);
     }
 
     @Override
     public int hashCode() {
-        return courseCode.hashCode();
+        return Objects.hashCode(courseCode);
     }
 }
\ No newline at end of file
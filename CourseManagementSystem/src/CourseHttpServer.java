@@ -0,0 +1,501 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CourseHttpServer serves a CourseRegistry over HTTP with JSON responses,
+ * so many administrators and integrations can use it at once.
+ *
+ * Endpoints:
+ * - POST /courses      code, name, capacity    adds a course
+ * - GET  /courses/{code}                        gets a course
+ * - POST /students     id, name                adds a student
+ * - GET  /students/{id}                         gets a student with grades
+ * - POST /enrollments  studentId, courseCode   enrolls a student
+ * - POST /grades       studentId, courseCode, grade
+ * - GET  /statistics                            gets the statistics snapshot
+ *
+ * POST parameters are read from a flat JSON object body, a form-encoded
+ * body or the query string. Every request runs on its own virtual thread
+ * when the JDK provides them (JDK 21+), otherwise on a pooled platform
+ * thread. Requests run concurrently; the registry operations are
+ * thread-safe, so no locking is done here.
+ *
+ * Unparseable input gets a 400 response and any other failure a 500, so a
+ * bad request never leaves the client without an answer.
+ *
+ * main() turns on TCP_NODELAY through the JDK's sun.net.httpserver.nodelay
+ * property unless it is already set, so small JSON responses are not held
+ * back by Nagle's algorithm. Code that creates a server directly can set
+ * the property itself before the first server is created.
+ */
+public class CourseHttpServer {
+    /**
+     * Handles one exchange; the caller turns exceptions into error responses
+     * and closes the exchange
+     */
+    private interface ExchangeHandler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Thrown when a request body or query string cannot be parsed
+     */
+    private static final class MalformedRequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MalformedRequestException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final CourseRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for a registry; call start() to begin serving
+     * @param registry The registry to serve
+     * @param port The TCP port to listen on (0 picks a free port)
+     * @throws IOException if the port cannot be bound
+     */
+    public CourseHttpServer(CourseRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/courses", exchange -> handle(exchange, this::handleCourses));
+        server.createContext("/students", exchange -> handle(exchange, this::handleStudents));
+        server.createContext("/enrollments", exchange -> handle(exchange, this::handleEnrollments));
+        server.createContext("/grades", exchange -> handle(exchange, this::handleGrades));
+        server.createContext("/statistics", exchange -> handle(exchange, this::handleStatistics));
+    }
+
+    /**
+     * Creates an executor that runs each request on a new virtual thread,
+     * or on a cached pool of platform threads before JDK 21
+     * @return The request executor
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Starts serving requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits briefly for running ones to finish
+     * @param delaySeconds Seconds to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the port the server is listening on
+     * @return The port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Starts a server for the shared CourseManagement registry
+     * @param args Optional port (default 8080)
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        // Read by the JDK server when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        CourseHttpServer httpServer = new CourseHttpServer(CourseManagement.getRegistry(), port);
+        httpServer.start();
+        System.out.println("Course Management server listening on port " + httpServer.getPort());
+    }
+
+    /**
+     * Runs a handler, answering 400 for malformed input and 500 for any
+     * other failure, and always closes the exchange
+     */
+    private static void handle(HttpExchange exchange, ExchangeHandler handler) throws IOException {
+        try {
+            handler.handle(exchange);
+        } catch (MalformedRequestException e) {
+            sendErrorIfUnanswered(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendErrorIfUnanswered(exchange, 500, "Internal server error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleCourses(HttpExchange exchange) throws IOException {
+        String code = pathParameter(exchange, "/courses");
+        if ("POST".equals(exchange.getRequestMethod()) && code == null) {
+            Map<String, String> params = readParameters(exchange);
+            Integer capacity = parseInt(params.get("capacity"));
+            if (capacity == null) {
+                sendError(exchange, 400, "capacity must be a whole number");
+                return;
+            }
+            Course course = registry.addCourse(params.get("code"), params.get("name"), capacity);
+            if (course == null) {
+                sendError(exchange, 409, "Course code already exists or invalid input");
+                return;
+            }
+            send(exchange, 201, courseJson(course));
+        } else if ("GET".equals(exchange.getRequestMethod()) && code != null) {
+            Course course = registry.findCourseByCode(code);
+            if (course == null) {
+                sendError(exchange, 404, "Course not found");
+                return;
+            }
+            send(exchange, 200, courseJson(course));
+        } else {
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void handleStudents(HttpExchange exchange) throws IOException {
+        String id = pathParameter(exchange, "/students");
+        if ("POST".equals(exchange.getRequestMethod()) && id == null) {
+            Map<String, String> params = readParameters(exchange);
+            String studentId = params.get("id");
+            String name = params.get("name");
+            if (studentId == null || studentId.trim().isEmpty() || name == null || name.trim().isEmpty()) {
+                sendError(exchange, 400, "id and name are required");
+                return;
+            }
+            Student student = new Student(name.trim(), studentId.trim());
+            if (!registry.addStudent(student)) {
+                sendError(exchange, 409, "Student ID already exists");
+                return;
+            }
+            send(exchange, 201, studentJson(student));
+        } else if ("GET".equals(exchange.getRequestMethod()) && id != null) {
+            Student student = registry.findStudentById(id);
+            if (student == null) {
+                sendError(exchange, 404, "Student not found");
+                return;
+            }
+            send(exchange, 200, studentJson(student));
+        } else {
+            sendError(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void handleEnrollments(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        Map<String, String> params = readParameters(exchange);
+        Student student = registry.findStudentById(params.get("studentId"));
+        Course course = registry.findCourseByCode(params.get("courseCode"));
+        if (student == null || course == null) {
+            sendError(exchange, 404, student == null ? "Student not found" : "Course not found");
+            return;
+        }
+        if (!registry.enrollStudent(student, course)) {
+            sendError(exchange, 409, "Course is full, already enrolled or timetable clash");
+            return;
+        }
+        send(exchange, 200, "{\"enrolled\":true,\"course\":" + courseJson(course) + "}");
+    }
+
+    private void handleGrades(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        Map<String, String> params = readParameters(exchange);
+        Student student = registry.findStudentById(params.get("studentId"));
+        Course course = registry.findCourseByCode(params.get("courseCode"));
+        if (student == null || course == null) {
+            sendError(exchange, 404, student == null ? "Student not found" : "Course not found");
+            return;
+        }
+        Double grade = parseDouble(params.get("grade"));
+        if (grade == null) {
+            sendError(exchange, 400, "grade must be a number");
+            return;
+        }
+        if (!registry.assignGrade(student, course, grade)) {
+            sendError(exchange, 409, "Grade must be 0-100 and the student enrolled in the course");
+            return;
+        }
+        send(exchange, 200, "{\"graded\":true,\"overallGrade\":" + student.calculateOverallGrade() + "}");
+    }
+
+    private void handleStatistics(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        EnrollmentStatistics.Snapshot stats = registry.getStatisticsSnapshot();
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"totalCourses\":").append(stats.getTotalCourses());
+        json.append(",\"totalStudents\":").append(stats.getTotalStudents());
+        json.append(",\"totalEnrollments\":").append(stats.getTotalEnrollments());
+        json.append(",\"totalSeats\":").append(stats.getTotalSeats());
+        json.append(",\"fillHistogram\":").append(jsonArray(stats.getFillHistogram()));
+        json.append(",\"courseCountHistogram\":").append(jsonArray(stats.getCourseCountHistogram()));
+        json.append(",\"gradeHistogram\":").append(jsonArray(stats.getGradeHistogram()));
+        json.append("}");
+        send(exchange, 200, json.toString());
+    }
+
+    /**
+     * Gets the decoded path segment after a context, e.g. the code in /courses/CS101
+     * @return The segment, or null if the path is the context itself
+     */
+    private static String pathParameter(HttpExchange exchange, String context) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() <= context.length() + 1) {
+            return null;
+        }
+        return path.substring(context.length() + 1);
+    }
+
+    /**
+     * Reads request parameters from the query string and the body
+     * @throws MalformedRequestException if an escape sequence is invalid
+     */
+    private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+        try {
+            parseForm(exchange.getRequestURI().getRawQuery(), params);
+            if (body.startsWith("{")) {
+                parseFlatJson(body, params);
+            } else {
+                parseForm(body, params);
+            }
+        } catch (IllegalArgumentException e) {
+            // Bad %-escapes from URLDecoder and bad unicode escapes in JSON strings
+            throw new MalformedRequestException("Malformed request parameters", e);
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON object whose values are strings, numbers or literals.
+     * Nested objects and arrays are not supported by any endpoint.
+     */
+    private static void parseFlatJson(String json, Map<String, String> params) {
+        int i = 1;
+        while (i < json.length()) {
+            i = skipWhitespace(json, i);
+            if (i >= json.length() || json.charAt(i) != '"') {
+                return; // End of object or malformed input
+            }
+            StringBuilder key = new StringBuilder();
+            i = readString(json, i, key);
+            i = skipWhitespace(json, i);
+            if (i >= json.length() || json.charAt(i) != ':') {
+                return;
+            }
+            i = skipWhitespace(json, i + 1);
+            if (i >= json.length()) {
+                return;
+            }
+            String value;
+            if (json.charAt(i) == '"') {
+                StringBuilder text = new StringBuilder();
+                i = readString(json, i, text);
+                value = text.toString();
+            } else {
+                int start = i;
+                while (i < json.length() && json.charAt(i) != ',' && json.charAt(i) != '}') {
+                    i++;
+                }
+                value = json.substring(start, i).trim();
+            }
+            params.put(key.toString(), value);
+            i = skipWhitespace(json, i);
+            if (i < json.length() && json.charAt(i) == ',') {
+                i++;
+            }
+        }
+    }
+
+    private static int skipWhitespace(String json, int i) {
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Reads a quoted JSON string starting at the opening quote
+     * @return The position after the closing quote
+     */
+    private static int readString(String json, int i, StringBuilder out) {
+        i++;
+        while (i < json.length() && json.charAt(i) != '"') {
+            char c = json.charAt(i++);
+            if (c == '\\' && i < json.length()) {
+                char escaped = json.charAt(i++);
+                switch (escaped) {
+                    case 'n': out.append('\n'); break;
+                    case 't': out.append('\t'); break;
+                    case 'r': out.append('\r'); break;
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'u':
+                        if (i + 4 > json.length()) {
+                            throw new IllegalArgumentException("Truncated \\u escape");
+                        }
+                        out.append((char) Integer.parseInt(json.substring(i, i + 4), 16));
+                        i += 4;
+                        break;
+                    default: out.append(escaped);
+                }
+            } else {
+                out.append(c);
+            }
+        }
+        return i + 1;
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a finite number; NaN and infinities are rejected like other bad input
+     */
+    private static Double parseDouble(String value) {
+        try {
+            Double number = value == null ? null : Double.valueOf(value.trim());
+            return number == null || Double.isNaN(number) || Double.isInfinite(number) ? null : number;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String courseJson(Course course) {
+        return "{\"code\":" + quote(course.getCourseCode())
+            + ",\"name\":" + quote(course.getCourseName())
+            + ",\"capacity\":" + course.getMaximumCapacity()
+            + ",\"enrolled\":" + course.getCurrentEnrollment()
+            + ",\"averageGrade\":" + course.getAverageGrade() + "}";
+    }
+
+    private static String studentJson(Student student) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"id\":").append(quote(student.getStudentId()));
+        json.append(",\"name\":").append(quote(student.getName()));
+        json.append(",\"courses\":[");
+        boolean first = true;
+        for (Course course : student.getEnrolledCoursesView()) {
+            json.append(first ? "" : ",").append(quote(course.getCourseCode()));
+            first = false;
+        }
+        json.append("],\"grades\":{");
+        student.forEachGrade((course, grade) ->
+            json.append(json.charAt(json.length() - 1) == '{' ? "" : ",")
+                .append(quote(course.getCourseCode())).append(':').append(grade));
+        json.append("},\"overallGrade\":").append(student.calculateOverallGrade()).append("}");
+        return json.toString();
+    }
+
+    private static String jsonArray(long[] values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            json.append(i == 0 ? "" : ",").append(values[i]);
+        }
+        return json.append("]").toString();
+    }
+
+    /**
+     * Quotes a string for JSON output
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Sends an error unless a response has already been started
+     */
+    private static void sendErrorIfUnanswered(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() == -1) {
+            sendError(exchange, status, message);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "{\"error\":" + quote(message) + "}");
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
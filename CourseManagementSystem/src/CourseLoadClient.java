@@ -0,0 +1,143 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * CourseLoadClient drives a CourseHttpServer with concurrent requests and
+ * reports throughput and latency percentiles per endpoint.
+ *
+ * Usage: java CourseLoadClient [baseUrl] [students] [courses] [concurrency]
+ * Defaults: http://localhost:8080 10000 100 64
+ *
+ * The client adds the courses and students, then enrolls every student
+ * in three consecutive courses from a random start and grades each
+ * enrollment. It is meant for local capacity checks, not as a general
+ * HTTP benchmark tool.
+ */
+public class CourseLoadClient {
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int concurrency;
+
+    /**
+     * Creates a client
+     * @param baseUrl The server address, e.g. http://localhost:8080
+     * @param concurrency The number of requests kept in flight
+     */
+    public CourseLoadClient(String baseUrl, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(CourseHttpServer.newRequestExecutor())
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int courses = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int coursesPerStudent = 3;
+
+        CourseLoadClient load = new CourseLoadClient(baseUrl, concurrency);
+        int capacity = Math.max(1, students * coursesPerStudent / courses * 2);
+
+        load.run("POST /courses", courses, i -> load.post("/courses",
+            "{\"code\":\"LC" + i + "\",\"name\":\"Load Course " + i + "\",\"capacity\":" + capacity + "}"));
+        load.run("POST /students", students, i -> load.post("/students",
+            "{\"id\":\"LS" + i + "\",\"name\":\"Load Student " + i + "\"}"));
+
+        // Each student gets coursesPerStudent consecutive courses from a random start
+        int[] firstCourse = new int[students];
+        for (int i = 0; i < students; i++) {
+            firstCourse[i] = ThreadLocalRandom.current().nextInt(courses);
+        }
+        int enrollments = students * Math.min(coursesPerStudent, courses);
+        int perStudent = Math.min(coursesPerStudent, courses);
+        load.run("POST /enrollments", enrollments, i -> load.post("/enrollments",
+            "{\"studentId\":\"LS" + (i / perStudent) + "\",\"courseCode\":\"LC"
+                + (firstCourse[i / perStudent] + i % perStudent) % courses + "\"}"));
+        load.run("POST /grades", enrollments, i -> load.post("/grades",
+            "{\"studentId\":\"LS" + (i / perStudent) + "\",\"courseCode\":\"LC"
+                + (firstCourse[i / perStudent] + i % perStudent) % courses + "\",\"grade\":"
+                + ThreadLocalRandom.current().nextInt(101) + "}"));
+        load.run("GET /students/{id}", students, i -> load.get("/students/LS" + i));
+        load.run("GET /statistics", Math.max(1, students / 10), i -> load.get("/statistics"));
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    /**
+     * Sends a number of requests with the configured concurrency and
+     * prints throughput, error count and latency percentiles
+     * @param label The name printed for this phase
+     * @param count The number of requests
+     * @param request Builds request i
+     */
+    public void run(String label, int count, IntFunction<HttpRequest> request) throws Exception {
+        long[] latencies = new long[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService workers = CourseHttpServer.newRequestExecutor();
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            running.add(workers.submit(() -> {
+                for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                    HttpRequest built = request.apply(i);
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(built, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-22s %8d req %10.0f req/s  errors %6d  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms%n",
+            label, count, count / (elapsed / 1e9), errors.get(),
+            percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+            (count == 0 ? 0 : latencies[count - 1]) / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -1,20 +1,26 @@
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * CourseManagement class serves as the central management system for
  * courses, student enrollments, and grade management.
  * 
- * This class uses static variables and methods to maintain system-wide
- * data and operations, demonstrating class-level functionality.
+ * This class uses static methods to give the whole program one shared
+ * registry, demonstrating class-level functionality. The work is done by
+ * a sharded CourseRegistry; programs that need several independent
+ * registries, such as one per term, can create CourseRegistry instances
+ * directly.
+ * 
+ * All operations are safe to call from many threads. Each call is timed
+ * and counted by the registry, in getMetrics().
  */
 public class CourseManagement {
-    // Private static variables to store system-wide data
-    private static List<Course> courses = new ArrayList<>();
-    private static Map<Student, Map<Course, Double>> overallGrades = new HashMap<>();
-    private static List<Student> students = new ArrayList<>();
+    // The registry behind the static methods
+    private static final CourseRegistry registry = new CourseRegistry();
 
     /**
      * Private constructor to prevent instantiation
@@ -24,6 +30,24 @@ public class CourseManagement {
         // Prevent instantiation
     }
 
+    /**
+     * Gets the per-operation latency, throughput and error figures.
+     * A call counts as an error if it throws or returns a failure result
+     * (false, null or INVALID).
+     * @return The operation metrics
+     */
+    public static OperationMetrics getMetrics() {
+        return registry.getMetrics();
+    }
+
+    /**
+     * Gets the registry behind the static methods
+     * @return The default registry
+     */
+    public static CourseRegistry getRegistry() {
+        return registry;
+    }
+
     /**
      * Adds a new course to the system
      * 
@@ -33,22 +57,7 @@ public class CourseManagement {
      * @return The created Course object, or null if invalid parameters
      */
     public static Course addCourse(String courseCode, String courseName, int maximumCapacity) {
-        if (courseCode == null || courseCode.trim().isEmpty() || 
-            courseName == null || courseName.trim().isEmpty() || 
-            maximumCapacity <= 0) {
-            return null;
-        }
-
-        // Check if course already exists
-        for (Course course : courses) {
-            if (course.getCourseCode().equals(courseCode)) {
-                return null; // Course with this code already exists
-            }
-        }
-
-        Course newCourse = new Course(courseCode, courseName, maximumCapacity);
-        courses.add(newCourse);
-        return newCourse;
+        return registry.addCourse(courseCode, courseName, maximumCapacity);
     }
 
     /**
@@ -59,38 +68,184 @@ public class CourseManagement {
      * @return true if enrollment is successful, false otherwise
      */
     public static boolean enrollStudent(Student student, Course course) {
-        if (student == null || course == null) {
-            return false;
-        }
-
-        // Check if course exists in the system
-        if (!courses.contains(course)) {
-            return false;
-        }
-
-        // Check if course has capacity
-        if (!course.hasCapacity()) {
-            return false;
-        }
-
-        // Enroll student using the Student class method
-        boolean enrolled = student.enrollInCourse(course);
-        
-        if (enrolled) {
-            course.incrementEnrollment();
-            
-            // Add student to system if not already present
-            if (!students.contains(student)) {
-                students.add(student);
-            }
-            
-            // Initialize grade tracking for this student if needed
-            if (!overallGrades.containsKey(student)) {
-                overallGrades.put(student, new HashMap<>());
-            }
-        }
-
-        return enrolled;
+        return registry.enrollStudent(student, course);
+    }
+
+    /**
+     * Enrolls a student, or puts them on the course's waitlist if the
+     * course is full or other students are already waiting
+     * 
+     * @param student The student to enroll
+     * @param course The course to enroll in
+     * @return What happened to the request
+     */
+    public static CourseRegistry.EnrollmentOutcome enrollOrWaitlist(Student student, Course course) {
+        return registry.enrollOrWaitlist(student, course);
+    }
+
+    /**
+     * Removes a student from a course and hands the freed seat to the
+     * next student on the waitlist. Graded courses cannot be dropped.
+     * 
+     * @param student The student dropping the course
+     * @param course The course to drop
+     * @return true if the student was dropped
+     */
+    public static boolean dropStudent(Student student, Course course) {
+        return registry.dropStudent(student, course);
+    }
+
+    /**
+     * Removes a student from a course's waitlist
+     * @param student The waiting student
+     * @param course The course they are waiting for
+     * @return true if the student was on the waitlist
+     */
+    public static boolean leaveWaitlist(Student student, Course course) {
+        return registry.leaveWaitlist(student, course);
+    }
+
+    /**
+     * Gets a student's position on a course's waitlist
+     * @param student The waiting student
+     * @param course The course they are waiting for
+     * @return The 1-based position, or -1 if not waiting
+     */
+    public static int getWaitlistPosition(Student student, Course course) {
+        return registry.getWaitlistPosition(student, course);
+    }
+
+    /**
+     * Enrolls waiting students for as many seats as are free, in
+     * waitlist order. Seats are reserved and students dequeued together,
+     * so concurrent promotions never lose a seat or promote twice.
+     * 
+     * @param course The course to promote into
+     * @return The number of students enrolled from the waitlist
+     */
+    public static int promoteWaitlisted(Course course) {
+        return registry.promoteWaitlisted(course);
+    }
+
+    /**
+     * Adds seats to a course and promotes waiting students into them
+     * @param course The course to expand
+     * @param additionalSeats The number of seats to add
+     * @return The number of students enrolled from the waitlist
+     */
+    public static int expandCapacity(Course course, int additionalSeats) {
+        return registry.expandCapacity(course, additionalSeats);
+    }
+
+    /**
+     * Adds a weekly meeting time to a course. Meeting times must be set
+     * before the first student enrolls.
+     * 
+     * @param course The course to schedule
+     * @param slot The meeting time to add
+     * @return true if added, false if invalid, overlapping the course's own
+     *         slots, or the course already has students
+     */
+    public static boolean addMeetingSlot(Course course, MeetingSlot slot) {
+        return registry.addMeetingSlot(course, slot);
+    }
+
+    /**
+     * Makes one course a prerequisite of another. Prerequisites are
+     * checked for new enrollments only; existing ones are kept.
+     * 
+     * @param course The course that requires the prerequisite
+     * @param prerequisite The course that must be completed first
+     * @return true if added, false if invalid, already present, or the
+     *         prerequisite itself (indirectly) requires the course
+     */
+    public static boolean addPrerequisite(Course course, Course prerequisite) {
+        return registry.addPrerequisite(course, prerequisite);
+    }
+
+    /**
+     * Gets the courses directly required by a course
+     * @param course The course to look up
+     * @return The direct prerequisites
+     */
+    public static List<Course> getPrerequisites(Course course) {
+        return registry.getPrerequisites(course);
+    }
+
+    /**
+     * Gets every course a course requires, directly or through other
+     * prerequisites
+     * @param course The course to look up
+     * @return All prerequisites
+     */
+    public static List<Course> getAllPrerequisites(Course course) {
+        return registry.getAllPrerequisites(course);
+    }
+
+    /**
+     * Checks whether a student has completed (graded at least the pass
+     * mark) every course a course requires, directly or indirectly
+     * @param student The student to check
+     * @param course The course the student wants to take
+     * @return true if the student may enroll as far as prerequisites go
+     */
+    public static boolean isEligible(Student student, Course course) {
+        return registry.isEligible(student, course);
+    }
+
+    /**
+     * Gets the courses a student could take next: not yet taken, with
+     * every prerequisite completed
+     * @param student The student to plan for
+     * @return The eligible courses
+     */
+    public static List<Course> getEligibleCourses(Student student) {
+        return registry.getEligibleCourses(student);
+    }
+
+    /**
+     * Gets the courses each of many students could take next, computed
+     * in parallel across students
+     * @param students The students to plan for
+     * @return Each student's eligible courses
+     */
+    public static Map<Student, List<Course>> getEligibleCourses(Collection<Student> students) {
+        return registry.getEligibleCourses(students);
+    }
+
+    /**
+     * Checks every registered student's timetable for overlapping courses.
+     * Students are checked in parallel, each with a sort-and-sweep over
+     * their own meeting slots.
+     * @return All conflicts found
+     */
+    public static List<TimetableConflict> auditTimetables() {
+        return registry.auditTimetables();
+    }
+
+    /**
+     * Checks proposed schedules for overlapping courses, in parallel
+     * across students, without enrolling anyone
+     * @param schedules The proposed courses for each student
+     * @return All conflicts found
+     */
+    public static List<TimetableConflict> validateSchedules(Map<Student, List<Course>> schedules) {
+        return registry.validateSchedules(schedules);
+    }
+
+    /**
+     * Enrolls every (student ID, course code) pair of a batch.
+     * 
+     * Requests are grouped by course so each course is resolved once and
+     * its seats are claimed for the whole group in one atomic step, rather
+     * than one capacity check per request. Individual failures do not stop
+     * the batch; they are counted in the returned report.
+     * 
+     * @param batch The enrollment requests to apply
+     * @return A report with success and per-reason failure counts
+     */
+    public static BatchEnrollmentReport enrollBatch(EnrollmentBatch batch) {
+        return registry.enrollBatch(batch);
     }
 
     /**
@@ -102,22 +257,7 @@ public class CourseManagement {
      * @return true if grade assignment is successful, false otherwise
      */
     public static boolean assignGrade(Student student, Course course, double grade) {
-        if (student == null || course == null || grade < 0 || grade > 100) {
-            return false;
-        }
-
-        // Assign grade using the Student class method
-        boolean gradeAssigned = student.assignGrade(course, grade);
-
-        if (gradeAssigned) {
-            // Update the overall grades map
-            if (!overallGrades.containsKey(student)) {
-                overallGrades.put(student, new HashMap<>());
-            }
-            overallGrades.get(student).put(course, grade);
-        }
-
-        return gradeAssigned;
+        return registry.assignGrade(student, course, grade);
     }
 
     /**
@@ -128,11 +268,134 @@ public class CourseManagement {
      * @return The overall grade (average), or 0.0 if no grades assigned
      */
     public static double calculateOverallGrade(Student student) {
-        if (student == null) {
-            return 0.0;
-        }
+        return registry.calculateOverallGrade(student);
+    }
+
+    /**
+     * Gets the average grade for a course
+     * The course keeps running totals, so this does not scan any students
+     * 
+     * @param course The course to get the average for
+     * @return The average grade, or 0.0 if no grades assigned
+     */
+    public static double getAverageGrade(Course course) {
+        return registry.getAverageGrade(course);
+    }
 
-        return student.calculateOverallGrade();
+    /**
+     * Checks whether a student is enrolled in a course using the course's
+     * enrollment bitmap
+     * @param student The student to check
+     * @param course The course to check
+     * @return true if the student is enrolled in the course
+     */
+    public static boolean isEnrolled(Student student, Course course) {
+        return registry.isEnrolled(student, course);
+    }
+
+    /**
+     * Gets the students enrolled in a course
+     * @param course The course to list
+     * @return The enrolled students, in registration order
+     */
+    public static List<Student> getEnrolledStudents(Course course) {
+        return registry.getEnrolledStudents(course);
+    }
+
+    /**
+     * Gets the students enrolled in every one of the given courses,
+     * by intersecting the courses' enrollment bitmaps
+     * @param courses The courses to intersect
+     * @return The students enrolled in all of them
+     */
+    public static List<Student> getStudentsInAllCourses(Course... courses) {
+        return registry.getStudentsInAllCourses(courses);
+    }
+
+    /**
+     * Gets the students enrolled in at least one of the given courses,
+     * by taking the union of the courses' enrollment bitmaps
+     * @param courses The courses to combine
+     * @return The students enrolled in any of them
+     */
+    public static List<Student> getStudentsInAnyCourse(Course... courses) {
+        return registry.getStudentsInAnyCourse(courses);
+    }
+
+    /**
+     * Gets all grades recorded for a course as one contiguous array
+     * @param course The course to read
+     * @return The course's grades, empty if the course is not registered
+     */
+    public static double[] getCourseGrades(Course course) {
+        return registry.getCourseGrades(course);
+    }
+
+    /**
+     * Computes term-end grade statistics for every course in one parallel
+     * pass over grade storage
+     * @return The mean, median, standard deviation, percentiles and letter
+     *         counts of every registered course
+     */
+    public static GradeDistributionReport getGradeDistributionReport() {
+        return registry.getGradeDistributionReport();
+    }
+
+    /**
+     * Gets the students with the highest overall grades
+     * @param n The maximum number of students to return
+     * @return Up to n graded students, best overall grade first
+     */
+    public static List<Student> getTopStudents(int n) {
+        return registry.getTopStudents(n);
+    }
+
+    /**
+     * Gets the students with the highest grades in a course
+     * @param course The course to rank by
+     * @param n The maximum number of students to return
+     * @return Up to n graded students, best grade first
+     */
+    public static List<Student> getTopStudents(Course course, int n) {
+        return registry.getTopStudents(course, n);
+    }
+
+    /**
+     * Gets a student's rank by overall grade
+     * @param student The student to look up
+     * @return The 1-based rank, or -1 if the student has no grades
+     */
+    public static int getStudentRank(Student student) {
+        return registry.getStudentRank(student);
+    }
+
+    /**
+     * Gets a student's rank by grade within a course
+     * @param student The student to look up
+     * @param course The course to rank by
+     * @return The 1-based rank, or -1 if the student has no grade in the course
+     */
+    public static int getStudentRank(Student student, Course course) {
+        return registry.getStudentRank(student, course);
+    }
+
+    /**
+     * Gets the percentage of graded students ranked below a student
+     * @param student The student to look up
+     * @return The percentile (0-100), or -1 if the student has no grades
+     */
+    public static double getStudentPercentile(Student student) {
+        return registry.getStudentPercentile(student);
+    }
+
+    /**
+     * Gets the percentage of a course's graded students ranked below a student
+     * @param student The student to look up
+     * @param course The course to rank by
+     * @return The percentile (0-100), or -1 if the student has no grade in the course
+     */
+    public static double getStudentPercentile(Student student, Course course) {
+        return registry.getStudentPercentile(student, course);
     }
 
     /**
@@ -140,7 +403,7 @@ public class CourseManagement {
      * @return List of all courses
      */
     public static List<Course> getAllCourses() {
-        return new ArrayList<>(courses);
+        return registry.getAllCourses();
     }
 
     /**
@@ -148,7 +411,67 @@ public class CourseManagement {
      * @return List of all students
      */
     public static List<Student> getAllStudents() {
-        return new ArrayList<>(students);
+        return registry.getAllStudents();
+    }
+
+    /**
+     * Gets a read-only live view of all courses, without copying.
+     * Courses are never removed, so the view only ever grows.
+     * @return Unmodifiable view of all courses in insertion order
+     */
+    public static List<Course> getCoursesView() {
+        return registry.getCoursesView();
+    }
+
+    /**
+     * Gets a read-only live view of all students, without copying.
+     * Students are never removed, so the view only ever grows.
+     * @return Unmodifiable view of all students in insertion order
+     */
+    public static List<Student> getStudentsView() {
+        return registry.getStudentsView();
+    }
+
+    /**
+     * Gets one page of courses as a view, without copying.
+     * Positions are stable because courses are only ever appended, so the
+     * end of one page can be used as the start of the next.
+     * 
+     * @param offset The position of the first course on the page
+     * @param limit The maximum number of courses on the page
+     * @return Unmodifiable view of the page (empty past the end)
+     */
+    public static List<Course> getCourses(int offset, int limit) {
+        return registry.getCourses(offset, limit);
+    }
+
+    /**
+     * Gets one page of students as a view, without copying.
+     * Positions are stable because students are only ever appended, so the
+     * end of one page can be used as the start of the next.
+     * 
+     * @param offset The position of the first student on the page
+     * @param limit The maximum number of students on the page
+     * @return Unmodifiable view of the page (empty past the end)
+     */
+    public static List<Student> getStudents(int offset, int limit) {
+        return registry.getStudents(offset, limit);
+    }
+
+    /**
+     * Runs an action for every course, without copying or allocating per course
+     * @param action The action to run
+     */
+    public static void forEachCourse(Consumer<? super Course> action) {
+        registry.forEachCourse(action);
+    }
+
+    /**
+     * Runs an action for every student, without copying or allocating per student
+     * @param action The action to run
+     */
+    public static void forEachStudent(Consumer<? super Student> action) {
+        registry.forEachStudent(action);
     }
 
     /**
@@ -157,12 +480,7 @@ public class CourseManagement {
      * @return The Course object, or null if not found
      */
     public static Course findCourseByCode(String courseCode) {
-        for (Course course : courses) {
-            if (course.getCourseCode().equals(courseCode)) {
-                return course;
-            }
-        }
-        return null;
+        return registry.findCourseByCode(courseCode);
     }
 
     /**
@@ -171,12 +489,7 @@ public class CourseManagement {
      * @return The Student object, or null if not found
      */
     public static Student findStudentById(String studentId) {
-        for (Student student : students) {
-            if (student.getStudentId().equals(studentId)) {
-                return student;
-            }
-        }
-        return null;
+        return registry.findStudentById(studentId);
     }
 
     /**
@@ -185,19 +498,57 @@ public class CourseManagement {
      * @return true if added successfully, false if student already exists
      */
     public static boolean addStudent(Student student) {
-        if (student == null || students.contains(student)) {
-            return false;
-        }
-        
-        // Check for duplicate student ID
-        for (Student s : students) {
-            if (s.getStudentId().equals(student.getStudentId())) {
-                return false;
-            }
-        }
-        
-        students.add(student);
-        return true;
+        return registry.addStudent(student);
+    }
+
+    /**
+     * Gets a snapshot of the maintained enrollment statistics: seat fill,
+     * fill-level histogram, courses-per-student histogram and grade
+     * histogram. Nothing is scanned, so this is cheap enough to poll.
+     * @return The statistics snapshot
+     */
+    public static EnrollmentStatistics.Snapshot getStatisticsSnapshot() {
+        return registry.getStatisticsSnapshot();
+    }
+
+    /**
+     * Restores the system from a persistence directory and logs every
+     * later change to it. The newest snapshot is loaded and the log written
+     * after it is replayed; snapshots are then taken periodically.
+     * 
+     * @param directory The directory holding snapshots and log segments
+     * @param checkpointIntervalSeconds Seconds between snapshots (0 to disable)
+     * @throws IOException if the directory cannot be read or written
+     * @throws IllegalStateException if persistence is already enabled
+     */
+    public static void enablePersistence(Path directory, long checkpointIntervalSeconds)
+            throws IOException {
+        registry.enablePersistence(directory, checkpointIntervalSeconds);
+    }
+
+    /**
+     * Writes a snapshot now and trims the log it covers
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void checkpoint() throws IOException {
+        registry.checkpoint();
+    }
+
+    /**
+     * Flushes and closes the log; the system continues memory-only
+     * @throws IOException if the final flush fails
+     */
+    public static void disablePersistence() throws IOException {
+        registry.disablePersistence();
+    }
+
+    /**
+     * Gets the stream of enrollment, drop and grade events. Subscribers
+     * can resume from a sequence they saw earlier instead of rescanning.
+     * @return The event feed
+     */
+    public static EnrollmentEventFeed getEventFeed() {
+        return registry.getEventFeed();
     }
 
     /**
@@ -205,10 +556,6 @@ public class CourseManagement {
      * @return String containing enrollment statistics
      */
     public static String getEnrollmentStatistics() {
-        StringBuilder stats = new StringBuilder();
-        stats.append("Total Courses: ").append(courses.size()).append("\n");
-        stats.append("Total Students: ").append(students.size()).append("\n");
-        stats.append("Total Enrollments: ").append(Course.getTotalEnrolledStudents()).append("\n");
-        return stats.toString();
+        return registry.getEnrollmentStatistics();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,595 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoursePersistence makes a CourseRegistry's state survive restarts.
+ * 
+ * Every successful addCourse, addStudent, enrollStudent, assignGrade,
+ * dropStudent, capacity change, meeting slot and prerequisite is appended
+ * to a WriteAheadLog. Waitlists are not persisted; promotions are logged as
+ * enrollments. Periodic checkpoints rotate the log and write a compact
+ * binary snapshot of all courses, students, enrollments and grades. On
+ * startup the latest snapshot is loaded and only the log segments written
+ * after it are replayed.
+ * 
+ * The registry appends a record while it still holds the lock that makes
+ * the change visible, so a record is always in the log before any record
+ * that depends on it, and waits for it to be durable after unlocking.
+ * 
+ * Checkpoints are taken without pausing the system: the log is rotated
+ * first, then the snapshot is written from live state, so the snapshot may
+ * already contain some of the changes logged after it. Replaying such a
+ * change is refused or sets the same value again: courses, students,
+ * enrollments, slots and prerequisites are not added twice, and grades and
+ * capacities are set to the logged value. Replay goes through the public
+ * registry API, however, so it publishes feed events and counts metrics
+ * again; persistence should be enabled before anything subscribes.
+ */
+public class CoursePersistence implements AutoCloseable {
+    // Log record types
+    private static final byte ADD_COURSE = 1;
+    private static final byte ADD_STUDENT = 2;
+    private static final byte ENROLL = 3;
+    private static final byte ASSIGN_GRADE = 4;
+    private static final byte DROP = 5;
+    private static final byte CAPACITY = 6;
+    private static final byte MEETING_SLOT = 7;
+    private static final byte PREREQUISITE = 8;
+
+    private static final int SNAPSHOT_MAGIC_V1 = 0x434D5331; // "CMS1"
+    private static final int SNAPSHOT_MAGIC_V2 = 0x434D5332; // "CMS2", adds meeting slots
+    private static final int SNAPSHOT_MAGIC = 0x434D5333; // "CMS3", adds prerequisites
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final CourseRegistry registry;
+    private final Path directory;
+    private final WriteAheadLog log;
+    private final ScheduledExecutorService checkpointer;
+
+    // Failure of the latest automatic checkpoint, until a checkpoint succeeds
+    // or close() reports it
+    private volatile IOException checkpointFailure;
+
+    /**
+     * Creates the persistence layer around an already opened log
+     */
+    private CoursePersistence(CourseRegistry registry, Path directory, WriteAheadLog log,
+                              long checkpointIntervalSeconds) {
+        this.registry = registry;
+        this.directory = directory;
+        this.log = log;
+        if (checkpointIntervalSeconds > 0) {
+            this.checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "course-checkpointer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.checkpointer.scheduleWithFixedDelay(this::checkpointQuietly,
+                checkpointIntervalSeconds, checkpointIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.checkpointer = null;
+        }
+    }
+
+    /**
+     * Restores a registry from a directory and starts logging to it.
+     * 
+     * Must be called while the registry is not yet logging, so the
+     * replayed operations are not written to the log a second time.
+     * 
+     * @param registry The registry to restore and log
+     * @param directory The directory holding snapshots and log segments
+     * @param checkpointIntervalSeconds Seconds between automatic checkpoints (0 to disable)
+     * @return The opened persistence layer
+     * @throws IOException if the directory cannot be read or written
+     */
+    static CoursePersistence open(CourseRegistry registry, Path directory, long checkpointIntervalSeconds)
+            throws IOException {
+        Files.createDirectories(directory);
+
+        // Load the newest snapshot, then replay log segments written after it
+        long snapshotSegment = latestSnapshot(directory);
+        if (snapshotSegment > 0) {
+            loadSnapshot(registry, snapshotPath(directory, snapshotSegment));
+        }
+        long lastSegment = snapshotSegment;
+        for (long segment : WriteAheadLog.listSegments(directory)) {
+            if (segment >= snapshotSegment) {
+                WriteAheadLog.readSegment(WriteAheadLog.segmentPath(directory, segment),
+                    record -> replay(registry, record));
+            }
+            lastSegment = Math.max(lastSegment, segment);
+        }
+
+        // Always start a fresh segment so a torn tail is never appended to
+        WriteAheadLog log = new WriteAheadLog(directory, lastSegment + 1);
+        return new CoursePersistence(registry, directory, log, checkpointIntervalSeconds);
+    }
+
+    /**
+     * Logs a new course
+     * @param course The course that was added
+     * @return The log sequence number of the record
+     */
+    long logAddCourse(Course course) {
+        return append(out -> {
+            out.writeByte(ADD_COURSE);
+            out.writeUTF(course.getCourseCode());
+            out.writeUTF(course.getCourseName());
+            out.writeInt(course.getMaximumCapacity());
+        });
+    }
+
+    /**
+     * Logs a new student
+     * @param student The student that was added
+     * @return The log sequence number of the record
+     */
+    long logAddStudent(Student student) {
+        return append(out -> {
+            out.writeByte(ADD_STUDENT);
+            out.writeUTF(student.getStudentId());
+            out.writeUTF(nullToEmpty(student.getName()));
+        });
+    }
+
+    /**
+     * Logs an enrollment. The student's name is included because
+     * enrollStudent also registers students that were never added.
+     * @param student The enrolled student
+     * @param course The course enrolled in
+     * @return The log sequence number of the record
+     */
+    long logEnrollment(Student student, Course course) {
+        return append(out -> {
+            out.writeByte(ENROLL);
+            out.writeUTF(student.getStudentId());
+            out.writeUTF(nullToEmpty(student.getName()));
+            out.writeUTF(course.getCourseCode());
+        });
+    }
+
+    /**
+     * Logs a grade assignment
+     * @param student The graded student
+     * @param course The graded course
+     * @param grade The assigned grade
+     * @return The log sequence number of the record
+     */
+    long logGrade(Student student, Course course, double grade) {
+        return append(out -> {
+            out.writeByte(ASSIGN_GRADE);
+            out.writeUTF(student.getStudentId());
+            out.writeUTF(course.getCourseCode());
+            out.writeDouble(grade);
+        });
+    }
+
+    /**
+     * Logs a dropped enrollment
+     * @param student The student who dropped
+     * @param course The dropped course
+     * @return The log sequence number of the record
+     */
+    long logDrop(Student student, Course course) {
+        return append(out -> {
+            out.writeByte(DROP);
+            out.writeUTF(student.getStudentId());
+            out.writeUTF(course.getCourseCode());
+        });
+    }
+
+    /**
+     * Logs a course's new maximum capacity
+     * @param course The course whose capacity changes
+     * @param capacity The new maximum capacity
+     * @return The log sequence number of the record
+     */
+    long logCapacity(Course course, int capacity) {
+        return append(out -> {
+            out.writeByte(CAPACITY);
+            out.writeUTF(course.getCourseCode());
+            out.writeInt(capacity);
+        });
+    }
+
+    /**
+     * Logs a meeting slot added to a course
+     * @param course The scheduled course
+     * @param slot The added meeting slot
+     * @return The log sequence number of the record
+     */
+    long logMeetingSlot(Course course, MeetingSlot slot) {
+        return append(out -> {
+            out.writeByte(MEETING_SLOT);
+            out.writeUTF(course.getCourseCode());
+            writeSlot(out, slot);
+        });
+    }
+
+    /**
+     * Logs a prerequisite added to a course
+     * @param course The course that requires the prerequisite
+     * @param prerequisite The required course
+     * @return The log sequence number of the record
+     */
+    long logPrerequisite(Course course, Course prerequisite) {
+        return append(out -> {
+            out.writeByte(PREREQUISITE);
+            out.writeUTF(course.getCourseCode());
+            out.writeUTF(prerequisite.getCourseCode());
+        });
+    }
+
+    /**
+     * Waits until a logged record has been fsynced
+     * @param sequence The sequence number returned by one of the log methods
+     */
+    void awaitDurable(long sequence) {
+        try {
+            log.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist change", e);
+        }
+    }
+
+    /**
+     * Rotates the log and writes a snapshot of the current state, then
+     * deletes snapshots and log segments the new snapshot makes obsolete.
+     * A successful checkpoint clears the failure of an earlier automatic one.
+     * @throws IOException if the snapshot cannot be written; a failed
+     *         automatic checkpoint not yet reported is attached as suppressed
+     */
+    public synchronized void checkpoint() throws IOException {
+        try {
+            writeCheckpoint();
+            checkpointFailure = null;
+        } catch (IOException e) {
+            IOException earlier = checkpointFailure;
+            if (earlier != null) {
+                e.addSuppressed(earlier);
+            }
+            checkpointFailure = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the failure of the latest automatic checkpoint
+     * @return The failure, or null if none failed since the last successful checkpoint
+     */
+    public IOException getCheckpointFailure() {
+        return checkpointFailure;
+    }
+
+    /**
+     * Rotates the log, writes the snapshot and deletes what it covers
+     */
+    private void writeCheckpoint() throws IOException {
+        long segment = log.rotate();
+
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + "tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream file = java.nio.channels.Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+            writeSnapshot(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, snapshotPath(directory, segment),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Older snapshots and segments are now covered by the new snapshot
+        for (long old : listSnapshots(directory)) {
+            if (old < segment) {
+                Files.deleteIfExists(snapshotPath(directory, old));
+            }
+        }
+        for (long old : WriteAheadLog.listSegments(directory)) {
+            if (old < segment) {
+                Files.deleteIfExists(WriteAheadLog.segmentPath(directory, old));
+            }
+        }
+    }
+
+    /**
+     * Stops automatic checkpoints and closes the log
+     * @throws IOException if the final flush fails, or the latest automatic
+     *         checkpoint failed and no checkpoint has succeeded since
+     */
+    @Override
+    public void close() throws IOException {
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            try {
+                checkpointer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.close();
+
+        IOException failure = checkpointFailure;
+        if (failure != null) {
+            checkpointFailure = null;
+            throw new IOException("Automatic checkpoint failed", failure);
+        }
+    }
+
+    /**
+     * Runs a checkpoint from the scheduler. A failure is kept for
+     * getCheckpointFailure() and close() instead of being thrown, and the
+     * log segments it could not trim are kept for the next checkpoint.
+     */
+    private synchronized void checkpointQuietly() {
+        try {
+            writeCheckpoint();
+            checkpointFailure = null;
+        } catch (IOException e) {
+            checkpointFailure = e;
+        }
+    }
+
+    /**
+     * Writes all courses, then all students with their enrollments and
+     * grades, then all prerequisites
+     */
+    private void writeSnapshot(DataOutputStream out) throws IOException {
+        // Live views; the counts are fixed first and only that prefix is written
+        List<Course> courses = registry.getCoursesView();
+        List<Student> students = registry.getStudentsView();
+        int courseCount = courses.size();
+        int studentCount = students.size();
+
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            Course course = courses.get(i);
+            out.writeUTF(course.getCourseCode());
+            out.writeUTF(course.getCourseName());
+            out.writeInt(course.getMaximumCapacity());
+            List<MeetingSlot> slots = new ArrayList<>(course.getMeetingSlots());
+            out.writeInt(slots.size());
+            for (MeetingSlot slot : slots) {
+                writeSlot(out, slot);
+            }
+        }
+
+        out.writeInt(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            Student student = students.get(i);
+            out.writeUTF(student.getStudentId());
+            out.writeUTF(nullToEmpty(student.getName()));
+
+            List<Course> enrolled = student.getEnrolledCourses();
+            out.writeInt(enrolled.size());
+            for (Course course : enrolled) {
+                out.writeUTF(course.getCourseCode());
+            }
+
+            Map<Course, Double> grades = student.getCourseGrades();
+            out.writeInt(grades.size());
+            for (Map.Entry<Course, Double> grade : grades.entrySet()) {
+                out.writeUTF(grade.getKey().getCourseCode());
+                out.writeDouble(grade.getValue());
+            }
+        }
+
+        // Prerequisites come last so the enrollments above load unchecked
+        List<String[]> edges = new ArrayList<>();
+        registry.forEachPrerequisite((course, prerequisite) ->
+            edges.add(new String[] {course.getCourseCode(), prerequisite.getCourseCode()}));
+        out.writeInt(edges.size());
+        for (String[] edge : edges) {
+            out.writeUTF(edge[0]);
+            out.writeUTF(edge[1]);
+        }
+    }
+
+    /**
+     * Rebuilds state from a snapshot through the regular registry API
+     */
+    private static void loadSnapshot(CourseRegistry registry, Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != SNAPSHOT_MAGIC_V2 && magic != SNAPSHOT_MAGIC_V1) {
+                throw new IOException("Not a course snapshot: " + file);
+            }
+
+            int courseCount = in.readInt();
+            for (int i = 0; i < courseCount; i++) {
+                Course course = registry.addCourse(in.readUTF(), in.readUTF(), in.readInt());
+                if (magic != SNAPSHOT_MAGIC_V1) {
+                    int slots = in.readInt();
+                    for (int j = 0; j < slots; j++) {
+                        registry.addMeetingSlot(course, readSlot(in));
+                    }
+                }
+            }
+
+            int studentCount = in.readInt();
+            for (int i = 0; i < studentCount; i++) {
+                String studentId = in.readUTF();
+                Student student = new Student(in.readUTF(), studentId);
+                registry.addStudent(student);
+
+                int enrolled = in.readInt();
+                for (int j = 0; j < enrolled; j++) {
+                    registry.enrollStudent(student, registry.findCourseByCode(in.readUTF()));
+                }
+                int grades = in.readInt();
+                for (int j = 0; j < grades; j++) {
+                    Course course = registry.findCourseByCode(in.readUTF());
+                    registry.assignGrade(student, course, in.readDouble());
+                }
+            }
+
+            if (magic == SNAPSHOT_MAGIC) {
+                int edges = in.readInt();
+                for (int i = 0; i < edges; i++) {
+                    Course course = registry.findCourseByCode(in.readUTF());
+                    registry.addPrerequisite(course, registry.findCourseByCode(in.readUTF()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies one log record through the regular registry API
+     */
+    private static void replay(CourseRegistry registry, byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            switch (in.readByte()) {
+                case ADD_COURSE:
+                    registry.addCourse(in.readUTF(), in.readUTF(), in.readInt());
+                    break;
+                case ADD_STUDENT: {
+                    String studentId = in.readUTF();
+                    registry.addStudent(new Student(in.readUTF(), studentId));
+                    break;
+                }
+                case ENROLL: {
+                    String studentId = in.readUTF();
+                    String name = in.readUTF();
+                    Student student = registry.findStudentById(studentId);
+                    if (student == null) {
+                        student = new Student(name, studentId);
+                    }
+                    registry.enrollStudent(student, registry.findCourseByCode(in.readUTF()));
+                    break;
+                }
+                case ASSIGN_GRADE: {
+                    Student student = registry.findStudentById(in.readUTF());
+                    Course course = registry.findCourseByCode(in.readUTF());
+                    registry.assignGrade(student, course, in.readDouble());
+                    break;
+                }
+                case DROP: {
+                    Student student = registry.findStudentById(in.readUTF());
+                    registry.dropStudent(student, registry.findCourseByCode(in.readUTF()));
+                    break;
+                }
+                case CAPACITY: {
+                    Course course = registry.findCourseByCode(in.readUTF());
+                    int capacity = in.readInt();
+                    if (course != null && capacity > course.getMaximumCapacity()) {
+                        registry.expandCapacity(course, capacity - course.getMaximumCapacity());
+                    }
+                    break;
+                }
+                case MEETING_SLOT: {
+                    Course course = registry.findCourseByCode(in.readUTF());
+                    registry.addMeetingSlot(course, readSlot(in));
+                    break;
+                }
+                case PREREQUISITE: {
+                    Course course = registry.findCourseByCode(in.readUTF());
+                    registry.addPrerequisite(course, registry.findCourseByCode(in.readUTF()));
+                    break;
+                }
+                default:
+                    // Unknown record type from a newer version; skip it
+                    break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt log record", e);
+        }
+    }
+
+    /**
+     * Encodes a record and appends it to the log
+     */
+    private long append(RecordWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writer.write(out);
+            out.flush();
+            return log.append(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log change", e);
+        }
+    }
+
+    /**
+     * Writes the fields of one log record
+     */
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Finds the newest snapshot in a directory
+     * @return The snapshot's segment number, or 0 if there is none
+     */
+    private static long latestSnapshot(Path directory) throws IOException {
+        long latest = 0;
+        for (long snapshot : listSnapshots(directory)) {
+            latest = Math.max(latest, snapshot);
+        }
+        return latest;
+    }
+
+    /**
+     * Lists the segment numbers of all snapshots in a directory
+     */
+    private static List<Long> listSnapshots(Path directory) throws IOException {
+        List<Long> snapshots = new ArrayList<>();
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX)) {
+                    try {
+                        snapshots.add(Long.parseLong(name.substring(
+                            SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a snapshot file; ignore
+                    }
+                }
+            });
+        }
+        return snapshots;
+    }
+
+    /**
+     * Builds the path of the snapshot that precedes a log segment
+     */
+    private static Path snapshotPath(Path directory, long segment) {
+        return directory.resolve(String.format("%s%06d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+
+    private static void writeSlot(DataOutputStream out, MeetingSlot slot) throws IOException {
+        out.writeByte(slot.getDay().getValue());
+        out.writeShort(slot.getStartMinute());
+        out.writeShort(slot.getEndMinute());
+    }
+
+    private static MeetingSlot readSlot(DataInputStream in) throws IOException {
+        return new MeetingSlot(java.time.DayOfWeek.of(in.readByte()), in.readShort(), in.readShort());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,1578 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * CourseRegistry holds one independent set of courses, students,
+ * enrollments and grades, for example one term or one campus. Any number
+ * of registries can live in the same JVM; CourseManagement is a static
+ * front for a default one.
+ * 
+ * Courses are partitioned across shards by a hash of their course code.
+ * Each shard has its own lock, course lookup, grade columns, leaderboards
+ * and statistics, so work on courses in different shards does not contend.
+ * Students, the overall leaderboard and the course count histogram are
+ * registry-wide. Statistics are added up across shards when read.
+ * 
+ * All operations are safe to call from many threads. Seats are reserved
+ * atomically on each Course, so there is no global lock on the
+ * enrollment path.
+ * 
+ * Each public operation is timed and counted in getMetrics(), whether it
+ * is called through CourseManagement, the HTTP server or directly.
+ * 
+ * A course or student belongs to the registry that first registered it;
+ * other registries treat it as unknown.
+ */
+public class CourseRegistry {
+    /**
+     * Default number of shards: one per available processor
+     */
+    public static final int DEFAULT_SHARD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Lowest grade that counts a course as completed for prerequisites
+     */
+    public static final double PASS_MARK = 50.0;
+
+    // Course partitions, chosen by course code hash
+    private final CourseShard[] shards;
+
+    // All courses and students in insertion order, for listings
+    private final AppendOnlyList<Course> courses = new AppendOnlyList<>();
+    private final AppendOnlyList<Student> students = new AppendOnlyList<>();
+
+    // Handles of this registry's course codes and student IDs
+    private final CodeDictionary courseCodes = new CodeDictionary();
+    private final CodeDictionary studentIds = new CodeDictionary();
+
+    // Lookup index keyed by student ID handle
+    private final HandleTable<Student> studentsById = new HandleTable<>();
+
+    // Course count histogram; fill and grade histograms live in the shards
+    private final EnrollmentStatistics studentStatistics = new EnrollmentStatistics();
+
+    // Enrollments made through this registry
+    private final LongAdder totalEnrollments = new LongAdder();
+
+    // Students ranked by overall grade
+    private final GradeLeaderboard leaderboard = new GradeLeaderboard();
+
+    // Write-ahead log and snapshots, or null while running memory-only
+    private volatile CoursePersistence persistence;
+
+    // Enrollment, drop and grade events for downstream systems
+    private final EnrollmentEventFeed eventFeed = new EnrollmentEventFeed();
+
+    // Which courses must be completed before which
+    private final PrerequisiteGraph prerequisites = new PrerequisiteGraph();
+
+    // Latency, call and error counts for the public operations
+    private final OperationMetrics metrics = new OperationMetrics();
+    private final OperationMetrics.Operation addCourseCalls = metrics.operation("addCourse");
+    private final OperationMetrics.Operation enrollStudentCalls = metrics.operation("enrollStudent");
+    private final OperationMetrics.Operation enrollOrWaitlistCalls = metrics.operation("enrollOrWaitlist");
+    private final OperationMetrics.Operation dropStudentCalls = metrics.operation("dropStudent");
+    private final OperationMetrics.Operation leaveWaitlistCalls = metrics.operation("leaveWaitlist");
+    private final OperationMetrics.Operation getWaitlistPositionCalls = metrics.operation("getWaitlistPosition");
+    private final OperationMetrics.Operation promoteWaitlistedCalls = metrics.operation("promoteWaitlisted");
+    private final OperationMetrics.Operation expandCapacityCalls = metrics.operation("expandCapacity");
+    private final OperationMetrics.Operation addMeetingSlotCalls = metrics.operation("addMeetingSlot");
+    private final OperationMetrics.Operation addPrerequisiteCalls = metrics.operation("addPrerequisite");
+    private final OperationMetrics.Operation getPrerequisitesCalls = metrics.operation("getPrerequisites");
+    private final OperationMetrics.Operation getAllPrerequisitesCalls = metrics.operation("getAllPrerequisites");
+    private final OperationMetrics.Operation isEligibleCalls = metrics.operation("isEligible");
+    private final OperationMetrics.Operation getEligibleCoursesCalls = metrics.operation("getEligibleCourses");
+    private final OperationMetrics.Operation getEligibleCoursesForStudentsCalls = metrics.operation("getEligibleCourses(students)");
+    private final OperationMetrics.Operation auditTimetablesCalls = metrics.operation("auditTimetables");
+    private final OperationMetrics.Operation validateSchedulesCalls = metrics.operation("validateSchedules");
+    private final OperationMetrics.Operation enrollBatchCalls = metrics.operation("enrollBatch");
+    private final OperationMetrics.Operation assignGradeCalls = metrics.operation("assignGrade");
+    private final OperationMetrics.Operation calculateOverallGradeCalls = metrics.operation("calculateOverallGrade");
+    private final OperationMetrics.Operation getAverageGradeCalls = metrics.operation("getAverageGrade");
+    private final OperationMetrics.Operation isEnrolledCalls = metrics.operation("isEnrolled");
+    private final OperationMetrics.Operation getEnrolledStudentsCalls = metrics.operation("getEnrolledStudents");
+    private final OperationMetrics.Operation getStudentsInAllCoursesCalls = metrics.operation("getStudentsInAllCourses");
+    private final OperationMetrics.Operation getStudentsInAnyCourseCalls = metrics.operation("getStudentsInAnyCourse");
+    private final OperationMetrics.Operation getCourseGradesCalls = metrics.operation("getCourseGrades");
+    private final OperationMetrics.Operation getGradeDistributionReportCalls = metrics.operation("getGradeDistributionReport");
+    private final OperationMetrics.Operation getTopStudentsCalls = metrics.operation("getTopStudents");
+    private final OperationMetrics.Operation getTopStudentsInCourseCalls = metrics.operation("getTopStudents(course)");
+    private final OperationMetrics.Operation getStudentRankCalls = metrics.operation("getStudentRank");
+    private final OperationMetrics.Operation getStudentRankInCourseCalls = metrics.operation("getStudentRank(course)");
+    private final OperationMetrics.Operation getStudentPercentileCalls = metrics.operation("getStudentPercentile");
+    private final OperationMetrics.Operation getStudentPercentileInCourseCalls = metrics.operation("getStudentPercentile(course)");
+    private final OperationMetrics.Operation getAllCoursesCalls = metrics.operation("getAllCourses");
+    private final OperationMetrics.Operation getAllStudentsCalls = metrics.operation("getAllStudents");
+    private final OperationMetrics.Operation getCoursesViewCalls = metrics.operation("getCoursesView");
+    private final OperationMetrics.Operation getStudentsViewCalls = metrics.operation("getStudentsView");
+    private final OperationMetrics.Operation getCoursesCalls = metrics.operation("getCourses");
+    private final OperationMetrics.Operation getStudentsCalls = metrics.operation("getStudents");
+    private final OperationMetrics.Operation forEachCourseCalls = metrics.operation("forEachCourse");
+    private final OperationMetrics.Operation forEachStudentCalls = metrics.operation("forEachStudent");
+    private final OperationMetrics.Operation findCourseByCodeCalls = metrics.operation("findCourseByCode");
+    private final OperationMetrics.Operation findStudentByIdCalls = metrics.operation("findStudentById");
+    private final OperationMetrics.Operation addStudentCalls = metrics.operation("addStudent");
+    private final OperationMetrics.Operation getStatisticsSnapshotCalls = metrics.operation("getStatisticsSnapshot");
+    private final OperationMetrics.Operation enablePersistenceCalls = metrics.operation("enablePersistence");
+    private final OperationMetrics.Operation checkpointCalls = metrics.operation("checkpoint");
+    private final OperationMetrics.Operation disablePersistenceCalls = metrics.operation("disablePersistence");
+    private final OperationMetrics.Operation getEnrollmentStatisticsCalls = metrics.operation("getEnrollmentStatistics");
+
+    /**
+     * Outcome of enrollOrWaitlist
+     */
+    public enum EnrollmentOutcome {
+        ENROLLED,
+        WAITLISTED,
+        ALREADY_ENROLLED,
+        ALREADY_WAITLISTED,
+        TIME_CONFLICT,
+        MISSING_PREREQUISITES,
+        INVALID
+    }
+
+    /**
+     * Creates an empty registry with one shard per available processor
+     */
+    public CourseRegistry() {
+        this(DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * Creates an empty registry
+     * @param shardCount The number of course partitions
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public CourseRegistry(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        shards = new CourseShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new CourseShard(i, shardCount);
+        }
+    }
+
+    /**
+     * Gets the number of course partitions
+     * @return The shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the shard a course code is assigned to. Handles are handed out
+     * in sequence, so consecutive new courses spread evenly over shards.
+     */
+    private CourseShard shardFor(int codeHandle) {
+        return shards[codeHandle % shards.length];
+    }
+
+    /**
+     * Gets a registered course by its registry-wide index
+     */
+    private Course courseAt(int courseIndex) {
+        CourseShard shard = shards[courseIndex % shards.length];
+        return shard.getCourse(shard.columnOf(courseIndex));
+    }
+
+    /**
+     * Gets the shard holding a registered course
+     */
+    private CourseShard shardOf(Course course) {
+        return shards[course.getCourseIndex() % shards.length];
+    }
+
+    /**
+     * Checks that a course was added to this registry
+     */
+    private boolean owns(Course course) {
+        return course != null && course.getRegistry() == this;
+    }
+
+    /**
+     * Claims a student for this registry unless another registry has
+     * already claimed them
+     * @return true if the student belongs to this registry
+     */
+    private boolean claim(Student student) {
+        synchronized (student) {
+            if (student.getRegistry() == null) {
+                student.setRegistry(this);
+            }
+            return student.getRegistry() == this;
+        }
+    }
+
+    /**
+     * Adds a new course to the system
+     * 
+     * @param courseCode The unique course code
+     * @param courseName The name of the course
+     * @param maximumCapacity The maximum number of students allowed
+     * @return The created Course object, or null if invalid parameters
+     */
+    public Course addCourse(String courseCode, String courseName, int maximumCapacity) {
+        return addCourseCalls.time(() -> {
+            if (courseCode == null || courseCode.trim().isEmpty() || 
+                courseName == null || courseName.trim().isEmpty() || 
+                maximumCapacity <= 0) {
+                return null;
+            }
+
+            // Course creation is serialized per shard. The course is logged
+            // and gets its dense index before it becomes visible, so no
+            // enrollment in it can reach the log ahead of the course.
+            Course newCourse = new Course(courseCode, courseName, maximumCapacity);
+            int codeHandle = courseCodes.intern(courseCode);
+            CourseShard shard = shardFor(codeHandle);
+            long sequence;
+            shard.getLock().lock();
+            try {
+                if (shard.findCourse(codeHandle) != null) {
+                    return null; // Course with this code already exists
+                }
+                newCourse.setCodeHandle(codeHandle);
+                CoursePersistence log = persistence;
+                sequence = log != null ? log.logAddCourse(newCourse) : 0;
+                shard.addCourse(newCourse);
+                newCourse.setRegistry(this);
+                courses.append(newCourse);
+                shard.publish(newCourse);
+            } finally {
+                shard.getLock().unlock();
+            }
+            awaitDurable(sequence);
+            return newCourse;
+        }, Objects::nonNull);
+    }
+
+    /**
+     * Enrolls a student in a course
+     * 
+     * @param student The student to enroll
+     * @param course The course to enroll in
+     * @return true if enrollment is successful, false otherwise
+     */
+    public boolean enrollStudent(Student student, Course course) {
+        long start = System.nanoTime();
+        boolean enrolled = false;
+        try {
+            enrolled = tryEnroll(student, course);
+            return enrolled;
+        } finally {
+            enrollStudentCalls.record(start, enrolled);
+        }
+    }
+
+    /**
+     * Enrolls a student in a course; the untimed body of enrollStudent
+     */
+    private boolean tryEnroll(Student student, Course course) {
+        if (student == null || course == null) {
+            return false;
+        }
+
+        // Check if course exists in this registry and the student is not
+        // registered in another one
+        if (!owns(course) || !claim(student)) {
+            return false;
+        }
+
+        // Check if the student has completed every prerequisite
+        if (!meetsPrerequisites(student, course)) {
+            return false;
+        }
+
+        // Students on the waitlist get freed seats first
+        if (course.getWaitlist().size() > 0) {
+            return false;
+        }
+
+        // Reserve a seat atomically; fails if the course is full
+        if (!course.tryReserveSeat()) {
+            return false;
+        }
+
+        // Enroll student using the Student class method
+        long sequence = enrollAndRecord(student, course);
+        boolean enrolled = sequence >= 0;
+        
+        if (enrolled) {
+            awaitDurable(sequence);
+        } else {
+            // Already enrolled: give the reserved seat back
+            course.releaseSeat();
+        }
+        shardOf(course).getStatistics().reconcileCourse(course);
+
+        return enrolled;
+    }
+
+    /**
+     * Enrolls a student, or puts them on the course's waitlist if the
+     * course is full or other students are already waiting
+     * 
+     * @param student The student to enroll
+     * @param course The course to enroll in
+     * @return What happened to the request
+     */
+    public EnrollmentOutcome enrollOrWaitlist(Student student, Course course) {
+        long start = System.nanoTime();
+        EnrollmentOutcome outcome = EnrollmentOutcome.INVALID;
+        try {
+            outcome = enrollOrQueue(student, course);
+            return outcome;
+        } finally {
+            enrollOrWaitlistCalls.record(start, outcome != EnrollmentOutcome.INVALID);
+        }
+    }
+
+    /**
+     * Enrolls or waitlists a student; the untimed body of enrollOrWaitlist
+     */
+    private EnrollmentOutcome enrollOrQueue(Student student, Course course) {
+        if (student == null || !owns(course) || !claim(student)) {
+            return EnrollmentOutcome.INVALID;
+        }
+        if (student.isEnrolledIn(course)) {
+            return EnrollmentOutcome.ALREADY_ENROLLED;
+        }
+        if (student.findTimetableConflict(course) != null) {
+            return EnrollmentOutcome.TIME_CONFLICT;
+        }
+        if (!meetsPrerequisites(student, course)) {
+            return EnrollmentOutcome.MISSING_PREREQUISITES;
+        }
+        if (tryEnroll(student, course)) {
+            return EnrollmentOutcome.ENROLLED;
+        }
+        if (student.isEnrolledIn(course)) {
+            return EnrollmentOutcome.ALREADY_ENROLLED;
+        }
+        if (!course.getWaitlist().join(student)) {
+            return EnrollmentOutcome.ALREADY_WAITLISTED;
+        }
+
+        // A seat may have been freed between the failed attempt and joining
+        promoteFromWaitlist(course);
+        return student.isEnrolledIn(course) ? EnrollmentOutcome.ENROLLED : EnrollmentOutcome.WAITLISTED;
+    }
+
+    /**
+     * Removes a student from a course and hands the freed seat to the
+     * next student on the waitlist. Graded courses cannot be dropped.
+     * 
+     * @param student The student dropping the course
+     * @param course The course to drop
+     * @return true if the student was dropped
+     */
+    public boolean dropStudent(Student student, Course course) {
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            dropped = tryDrop(student, course);
+            return dropped;
+        } finally {
+            dropStudentCalls.record(start, dropped);
+        }
+    }
+
+    /**
+     * Drops a course; the untimed body of dropStudent
+     */
+    private boolean tryDrop(Student student, Course course) {
+        if (student == null || !owns(course) || student.getRegistry() != this) {
+            return false;
+        }
+
+        // Log and publish under the student's lock, so this student's log
+        // records and events keep the order of the changes
+        long sequence;
+        synchronized (student) {
+            if (!student.dropCourse(course)) {
+                return false;
+            }
+            totalEnrollments.decrement();
+            int studentIndex = student.getStudentIndex();
+            if (studentIndex >= 0) {
+                course.removeEnrolledStudent(studentIndex);
+            }
+            course.releaseSeat();
+            shardOf(course).getStatistics().reconcileCourse(course);
+            if (studentIndex >= 0) {
+                studentStatistics.reconcileStudent(student);
+            }
+
+            CoursePersistence log = persistence;
+            sequence = log != null ? log.logDrop(student, course) : 0;
+            eventFeed.publish(EnrollmentEvent.Type.DROPPED, student.getStudentId(), course.getCourseCode(), Double.NaN);
+        }
+        awaitDurable(sequence);
+
+        promoteFromWaitlist(course);
+        return true;
+    }
+
+    /**
+     * Removes a student from a course's waitlist
+     * @param student The waiting student
+     * @param course The course they are waiting for
+     * @return true if the student was on the waitlist
+     */
+    public boolean leaveWaitlist(Student student, Course course) {
+        return leaveWaitlistCalls.time(() -> {
+            if (student == null || course == null) {
+                return false;
+            }
+            return course.getWaitlist().leave(student);
+        }, Boolean::booleanValue);
+    }
+
+    /**
+     * Gets a student's position on a course's waitlist
+     * @param student The waiting student
+     * @param course The course they are waiting for
+     * @return The 1-based position, or -1 if not waiting
+     */
+    public int getWaitlistPosition(Student student, Course course) {
+        return getWaitlistPositionCalls.time(() -> {
+            if (student == null || course == null) {
+                return -1;
+            }
+            return course.getWaitlist().positionOf(student);
+        });
+    }
+
+    /**
+     * Enrolls waiting students for as many seats as are free, in
+     * waitlist order. Seats are reserved and students dequeued together,
+     * so concurrent promotions never lose a seat or promote twice.
+     * 
+     * @param course The course to promote into
+     * @return The number of students enrolled from the waitlist
+     */
+    public int promoteWaitlisted(Course course) {
+        return promoteWaitlistedCalls.time(() -> promoteFromWaitlist(course));
+    }
+
+    /**
+     * Promotes waiting students; the untimed body of promoteWaitlisted
+     */
+    private int promoteFromWaitlist(Course course) {
+        if (!owns(course)) {
+            return 0;
+        }
+
+        int promoted = 0;
+        long lastLogged = 0;
+        while (true) {
+            List<Student> next = course.getWaitlist().pollWithSeats(Integer.MAX_VALUE);
+            if (next.isEmpty()) {
+                break;
+            }
+            for (Student student : next) {
+                long sequence = enrollAndRecord(student, course);
+                if (sequence >= 0) {
+                    lastLogged = Math.max(lastLogged, sequence);
+                    promoted++;
+                } else {
+                    course.releaseSeat(); // Enrolled some other way meanwhile
+                }
+            }
+        }
+        shardOf(course).getStatistics().reconcileCourse(course);
+        awaitDurable(lastLogged);
+        return promoted;
+    }
+
+    /**
+     * Adds seats to a course and promotes waiting students into them
+     * @param course The course to expand
+     * @param additionalSeats The number of seats to add
+     * @return The number of students enrolled from the waitlist
+     */
+    public int expandCapacity(Course course, int additionalSeats) {
+        return expandCapacityCalls.time(() -> {
+            if (!owns(course) || additionalSeats <= 0) {
+                return 0;
+            }
+
+            // Log the new capacity before any enrollment can use the seats
+            long sequence;
+            synchronized (course) {
+                CoursePersistence log = persistence;
+                sequence = log != null
+                    ? log.logCapacity(course, course.getMaximumCapacity() + additionalSeats) : 0;
+                course.increaseCapacity(additionalSeats);
+            }
+            EnrollmentStatistics statistics = shardOf(course).getStatistics();
+            statistics.addSeats(additionalSeats);
+            statistics.reconcileCourse(course);
+            awaitDurable(sequence);
+            return promoteFromWaitlist(course);
+        });
+    }
+
+    /**
+     * Adds a weekly meeting time to a course. Meeting times must be set
+     * before the first student enrolls.
+     * 
+     * @param course The course to schedule
+     * @param slot The meeting time to add
+     * @return true if added, false if invalid, overlapping the course's own
+     *         slots, or the course already has students
+     */
+    public boolean addMeetingSlot(Course course, MeetingSlot slot) {
+        return addMeetingSlotCalls.time(() -> {
+            if (!owns(course) || slot == null) {
+                return false;
+            }
+
+            // Log the slot before enrollments can be checked against it
+            long sequence;
+            synchronized (course) {
+                if (!course.acceptsMeetingSlot(slot)) {
+                    return false;
+                }
+                CoursePersistence log = persistence;
+                sequence = log != null ? log.logMeetingSlot(course, slot) : 0;
+                course.addMeetingSlot(slot);
+            }
+            awaitDurable(sequence);
+            return true;
+        }, Boolean::booleanValue);
+    }
+
+    /**
+     * Makes one course a prerequisite of another. Prerequisites are
+     * checked for new enrollments only; existing ones are kept.
+     * 
+     * @param course The course that requires the prerequisite
+     * @param prerequisite The course that must be completed first
+     * @return true if added, false if invalid, already present, or the
+     *         prerequisite itself (indirectly) requires the course
+     */
+    public boolean addPrerequisite(Course course, Course prerequisite) {
+        return addPrerequisiteCalls.time(() -> {
+            if (!owns(course) || !owns(prerequisite)) {
+                return false;
+            }
+
+            // Log the edge before enrollments can be checked against it
+            long sequence;
+            synchronized (prerequisites) {
+                if (!prerequisites.canAddPrerequisite(course.getCourseIndex(), prerequisite.getCourseIndex())) {
+                    return false;
+                }
+                CoursePersistence log = persistence;
+                sequence = log != null ? log.logPrerequisite(course, prerequisite) : 0;
+                prerequisites.addPrerequisite(course.getCourseIndex(), prerequisite.getCourseIndex());
+            }
+            awaitDurable(sequence);
+            return true;
+        }, Boolean::booleanValue);
+    }
+
+    /**
+     * Gets the courses directly required by a course
+     * @param course The course to look up
+     * @return The direct prerequisites
+     */
+    public List<Course> getPrerequisites(Course course) {
+        return getPrerequisitesCalls.time(() -> {
+            if (!owns(course)) {
+                return new ArrayList<>();
+            }
+            return toCourses(prerequisites.getDirectPrerequisites(course.getCourseIndex()));
+        });
+    }
+
+    /**
+     * Gets every course a course requires, directly or through other
+     * prerequisites
+     * @param course The course to look up
+     * @return All prerequisites
+     */
+    public List<Course> getAllPrerequisites(Course course) {
+        return getAllPrerequisitesCalls.time(() -> {
+            if (!owns(course)) {
+                return new ArrayList<>();
+            }
+            return toCourses(prerequisites.getAllPrerequisites(course.getCourseIndex()));
+        });
+    }
+
+    /**
+     * Checks whether a student has completed (graded at least PASS_MARK)
+     * every course a course requires, directly or indirectly.
+     * The check is one subset test against the precomputed closure.
+     * 
+     * @param student The student to check
+     * @param course The course the student wants to take
+     * @return true if the student may enroll as far as prerequisites go
+     */
+    public boolean isEligible(Student student, Course course) {
+        return isEligibleCalls.time(() -> meetsPrerequisites(student, course));
+    }
+
+    /**
+     * Checks prerequisites; the untimed body of isEligible
+     */
+    private boolean meetsPrerequisites(Student student, Course course) {
+        if (student == null || !owns(course)) {
+            return false;
+        }
+        CompactBitmap required = prerequisites.getAllPrerequisites(course.getCourseIndex());
+        return required.isEmpty() || required.isSubsetOf(student.getCompletedCourseSet(PASS_MARK));
+    }
+
+    /**
+     * Gets the courses a student could take next: not yet taken, with
+     * every prerequisite completed
+     * @param student The student to plan for
+     * @return The eligible courses, in insertion order
+     */
+    public List<Course> getEligibleCourses(Student student) {
+        return getEligibleCoursesCalls.time(() -> eligibleCourses(student));
+    }
+
+    /**
+     * Finds a student's eligible courses; the untimed body of getEligibleCourses
+     */
+    private List<Course> eligibleCourses(Student student) {
+        List<Course> eligible = new ArrayList<>();
+        if (student == null) {
+            return eligible;
+        }
+        CompactBitmap completed = student.getCompletedCourseSet(PASS_MARK);
+        courses.forEach(course -> {
+            if (!student.isEnrolledIn(course)
+                    && prerequisites.isSatisfiedBy(course.getCourseIndex(), completed)) {
+                eligible.add(course);
+            }
+        });
+        return eligible;
+    }
+
+    /**
+     * Gets the courses each of many students could take next, computed
+     * in parallel across students
+     * @param students The students to plan for
+     * @return Each student's eligible courses
+     */
+    public Map<Student, List<Course>> getEligibleCourses(Collection<Student> students) {
+        return getEligibleCoursesForStudentsCalls.time(() -> {
+            if (students == null) {
+                return new HashMap<>();
+            }
+            return students.parallelStream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toMap(student -> student, this::eligibleCourses));
+        });
+    }
+
+    /**
+     * Runs an action for every prerequisite edge, for snapshots
+     * @param action Receives (course, prerequisite)
+     */
+    void forEachPrerequisite(BiConsumer<Course, Course> action) {
+        prerequisites.forEachEdge((course, prerequisite) -> action.accept(courseAt(course), courseAt(prerequisite)));
+    }
+
+    /**
+     * Maps a set of course indexes back to courses
+     */
+    private List<Course> toCourses(CompactBitmap courseIndexes) {
+        List<Course> result = new ArrayList<>(courseIndexes.cardinality());
+        courseIndexes.forEach(index -> result.add(courseAt(index)));
+        return result;
+    }
+
+    /**
+     * Checks every registered student's timetable for overlapping courses.
+     * Students are checked in parallel, each with a sort-and-sweep over
+     * their own meeting slots.
+     * @return All conflicts found
+     */
+    public List<TimetableConflict> auditTimetables() {
+        return auditTimetablesCalls.time(() -> {
+            AppendOnlyList<Student> all = students;
+            return IntStream.range(0, all.size()).parallel()
+                .mapToObj(all::get)
+                .flatMap(student -> TimetableConflict.detect(student, student.getEnrolledCoursesView()).stream())
+                .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Checks proposed schedules for overlapping courses, in parallel
+     * across students, without enrolling anyone
+     * @param schedules The proposed courses for each student
+     * @return All conflicts found
+     */
+    public List<TimetableConflict> validateSchedules(Map<Student, List<Course>> schedules) {
+        return validateSchedulesCalls.time(() -> {
+            return schedules.entrySet().parallelStream()
+                .flatMap(entry -> TimetableConflict.detect(entry.getKey(), entry.getValue()).stream())
+                .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Enrolls every (student ID, course code) pair of a batch.
+     * 
+     * Requests are grouped by course so each course is resolved once and
+     * its seats are claimed for the whole group in one atomic step, rather
+     * than one capacity check per request. Groups are applied in parallel,
+     * one task per shard. As with enrollStudent, requests for a course with
+     * students on its waitlist are refused so the waiting students keep
+     * their turn. Individual failures do not stop the batch; they are
+     * counted in the returned report.
+     * 
+     * @param batch The enrollment requests to apply
+     * @return A report with success and per-reason failure counts
+     */
+    public BatchEnrollmentReport enrollBatch(EnrollmentBatch batch) {
+        return enrollBatchCalls.time(() -> {
+            BatchEnrollmentReport report = new BatchEnrollmentReport();
+            if (batch == null || batch.isEmpty()) {
+                return report;
+            }
+
+            // Assign each request to a course group by code handle, keeping batch
+            // order within a group. Codes never interned cannot name a course and
+            // share one group.
+            int size = batch.size();
+            int[] groupOfHandle = new int[courseCodes.size() + 1];
+            int[] groupHandle = new int[Math.min(size, groupOfHandle.length)];
+            int groupCount = 0;
+            int[] groupOf = new int[size];
+            for (int i = 0; i < size; i++) {
+                int handle = courseCodes.lookup(batch.getCourseCode(i));
+                if (handle >= groupOfHandle.length - 1) {
+                    handle = -1; // Interned after the batch started
+                }
+                int slot = handle + 1;
+                if (groupOfHandle[slot] == 0) {
+                    groupHandle[groupCount] = handle;
+                    groupOfHandle[slot] = ++groupCount;
+                }
+                groupOf[i] = groupOfHandle[slot] - 1;
+            }
+            int[] groupStart = new int[groupCount + 1];
+            for (int i = 0; i < size; i++) {
+                groupStart[groupOf[i] + 1]++;
+            }
+            for (int g = 0; g < groupCount; g++) {
+                groupStart[g + 1] += groupStart[g];
+            }
+            int[] order = new int[size];
+            int[] fill = groupStart.clone();
+            for (int i = 0; i < size; i++) {
+                order[fill[groupOf[i]]++] = i;
+            }
+
+            // Groups in different shards touch different courses, so each shard's
+            // groups run as one parallel task. Groups are logged without waiting;
+            // one wait covers the whole batch.
+            int groups = groupCount;
+            Course[] groupCourse = new Course[groups];
+            int[] groupShard = new int[groups];
+            for (int g = 0; g < groups; g++) {
+                if (groupHandle[g] >= 0) {
+                    CourseShard shard = shardFor(groupHandle[g]);
+                    groupCourse[g] = shard.findCourse(groupHandle[g]);
+                    groupShard[g] = shard.getShardId();
+                }
+            }
+            BatchEnrollmentReport[] shardReports = new BatchEnrollmentReport[shards.length];
+            long lastLogged = IntStream.range(0, shards.length).parallel().mapToLong(shard -> {
+                BatchEnrollmentReport shardReport = new BatchEnrollmentReport();
+                shardReports[shard] = shardReport;
+                long shardLastLogged = 0;
+                for (int g = 0; g < groups; g++) {
+                    if (groupShard[g] == shard) {
+                        shardLastLogged = Math.max(shardLastLogged,
+                            enrollGroup(batch, groupCourse[g], order, groupStart[g], groupStart[g + 1], shardReport));
+                    }
+                }
+                return shardLastLogged;
+            }).max().orElse(0);
+            for (BatchEnrollmentReport shardReport : shardReports) {
+                report.merge(shardReport);
+            }
+            awaitDurable(lastLogged);
+            return report;
+        });
+    }
+
+    /**
+     * Enrolls one course group of a batch
+     * @param batch The batch being applied
+     * @param course The group's course, resolved once, or null if unknown
+     * @param order Batch positions sorted by course group
+     * @param from First position in order belonging to the group
+     * @param to Position in order just past the group
+     * @param report The report to record outcomes in
+     * @return The log sequence number of the group's last enrollment, or 0
+     */
+    private long enrollGroup(EnrollmentBatch batch, Course course, int[] order, int from, int to,
+                             BatchEnrollmentReport report) {
+        int reservedSeats = 0;
+        long lastLogged = 0;
+
+        for (int k = from; k < to; k++) {
+            int i = order[k];
+            String studentId = batch.getStudentId(i);
+            String courseCode = batch.getCourseCode(i);
+            long line = batch.getLineNumber(i);
+
+            if (course == null) {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.UNKNOWN_COURSE, line, studentId, courseCode);
+                continue;
+            }
+            Student student = studentById(studentId);
+            if (student == null) {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.UNKNOWN_STUDENT, line, studentId, courseCode);
+                continue;
+            }
+            if (!meetsPrerequisites(student, course)) {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.MISSING_PREREQUISITES, line, studentId, courseCode);
+                continue;
+            }
+
+            // Students on the waitlist get freed seats first, as in enrollStudent
+            if (course.getWaitlist().size() > 0) {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.WAITLIST_NOT_EMPTY, line, studentId, courseCode);
+                continue;
+            }
+
+            // Claim seats for the rest of the group when the reserved pool runs out
+            if (reservedSeats == 0) {
+                reservedSeats = course.tryReserveSeats(to - k);
+                if (reservedSeats == 0) {
+                    report.recordFailure(BatchEnrollmentReport.FailureReason.COURSE_FULL, line, studentId, courseCode);
+                    continue;
+                }
+            }
+
+            long sequence = enrollAndRecord(student, course);
+            if (sequence >= 0) {
+                reservedSeats--;
+                lastLogged = Math.max(lastLogged, sequence);
+                report.recordSuccess();
+            } else if (!student.isEnrolledIn(course)) {
+                // Students found by ID always belong here, so this is a clash
+                report.recordFailure(BatchEnrollmentReport.FailureReason.TIME_CONFLICT, line, studentId, courseCode);
+            } else {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.ALREADY_ENROLLED, line, studentId, courseCode);
+            }
+        }
+
+        // Give back seats reserved for requests that did not enroll; students
+        // who joined the waitlist while the group held them are owed those seats
+        if (course != null) {
+            course.releaseSeats(reservedSeats);
+            shardOf(course).getStatistics().reconcileCourse(course);
+            if (reservedSeats > 0 && course.getWaitlist().size() > 0) {
+                promoteFromWaitlist(course);
+            }
+        }
+        return lastLogged;
+    }
+
+    /**
+     * Enrolls a student in a course whose seat is already reserved and
+     * records the enrollment. This is done under the student's lock, so
+     * the student's log records and events keep the order of the changes.
+     * @param student The student to enroll
+     * @param course The course to enroll in
+     * @return The log sequence number of the enrollment (0 if not logging),
+     *         or -1 if the student was not enrolled
+     */
+    private long enrollAndRecord(Student student, Course course) {
+        synchronized (student) {
+            if (!claim(student) || !student.enrollInCourse(course)) {
+                return -1;
+            }
+            return recordEnrollment(student, course);
+        }
+    }
+
+    /**
+     * Updates system-wide bookkeeping after a successful enrollment.
+     * Must be called with the student's lock held.
+     * @param student The enrolled student
+     * @param course The course the student was enrolled in
+     * @return The log sequence number of the enrollment, or 0 if not logging
+     */
+    private long recordEnrollment(Student student, Course course) {
+        totalEnrollments.increment();
+
+        // Add student to system if not already present
+        registerStudent(student);
+
+        // Index the enrollment from the course side
+        int studentIndex = student.getStudentIndex();
+        if (studentIndex >= 0) {
+            course.addEnrolledStudent(studentIndex);
+            studentStatistics.reconcileStudent(student);
+        }
+
+        CoursePersistence log = persistence;
+        long sequence = log != null ? log.logEnrollment(student, course) : 0;
+        eventFeed.publish(EnrollmentEvent.Type.ENROLLED, student.getStudentId(), course.getCourseCode(), Double.NaN);
+        return sequence;
+    }
+
+    /**
+     * Waits until a logged change is durable, if persistence is enabled
+     * @param sequence The log sequence number, or 0 for nothing to wait on
+     */
+    private void awaitDurable(long sequence) {
+        CoursePersistence log = persistence;
+        if (log != null && sequence > 0) {
+            log.awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Assigns a grade to a student for a specific course
+     * 
+     * @param student The student to assign the grade to
+     * @param course The course for which to assign the grade
+     * @param grade The grade to assign (0.0 to 100.0)
+     * @return true if grade assignment is successful, false otherwise
+     */
+    public boolean assignGrade(Student student, Course course, double grade) {
+        long start = System.nanoTime();
+        boolean graded = false;
+        try {
+            graded = tryAssignGrade(student, course, grade);
+            return graded;
+        } finally {
+            assignGradeCalls.record(start, graded);
+        }
+    }
+
+    /**
+     * Stores a grade; the untimed body of assignGrade
+     */
+    private boolean tryAssignGrade(Student student, Course course, double grade) {
+        if (student == null || !owns(course) || student.getRegistry() != this || !(grade >= 0 && grade <= 100)) {
+            return false;
+        }
+
+        // The course's grade column is the only copy of the grade. Holding the
+        // student's lock keeps the running totals and leaderboard updates in
+        // the same order as the grades, and the log records and events in
+        // the order of the student's changes.
+        boolean gradeAssigned;
+        long sequence = 0;
+        synchronized (student) {
+            int studentIndex = student.getStudentIndex();
+            gradeAssigned = studentIndex >= 0 && student.isEnrolledIn(course);
+            if (gradeAssigned) {
+                CourseShard shard = shardOf(course);
+                int column = shard.columnOf(course.getCourseIndex());
+                double previous = shard.getGradeMatrix().set(studentIndex, column, grade);
+                student.recordGrade(course, previous, grade);
+                shard.getStatistics().recordGrade(previous, grade);
+                leaderboard.update(student, student.calculateOverallGrade());
+                shard.leaderboardFor(course).update(student, grade);
+
+                CoursePersistence log = persistence;
+                sequence = log != null ? log.logGrade(student, course, grade) : 0;
+                eventFeed.publish(EnrollmentEvent.Type.GRADE_ASSIGNED, student.getStudentId(), course.getCourseCode(), grade);
+            }
+        }
+        awaitDurable(sequence);
+
+        return gradeAssigned;
+    }
+
+    /**
+     * Reads a student's grade from the course's grade column
+     * @param student The student
+     * @param course The course
+     * @return The grade, or NaN if not graded or not stored in this registry
+     */
+    double gradeOf(Student student, Course course) {
+        int studentIndex = student.getStudentIndex();
+        if (studentIndex < 0 || !owns(course)) {
+            return Double.NaN;
+        }
+        CourseShard shard = shardOf(course);
+        return shard.getGradeMatrix().get(studentIndex, shard.columnOf(course.getCourseIndex()));
+    }
+
+    /**
+     * Calculates the overall course grade for a student
+     * This method computes the average of all grades assigned to the student
+     * 
+     * @param student The student for whom to calculate the overall grade
+     * @return The overall grade (average), or 0.0 if no grades assigned
+     */
+    public double calculateOverallGrade(Student student) {
+        return calculateOverallGradeCalls.time(() -> {
+            if (student == null) {
+                return 0.0;
+            }
+
+            return student.calculateOverallGrade();
+        });
+    }
+
+    /**
+     * Gets the average grade for a course
+     * The course keeps running totals, so this does not scan any students
+     * 
+     * @param course The course to get the average for
+     * @return The average grade, or 0.0 if no grades assigned
+     */
+    public double getAverageGrade(Course course) {
+        return getAverageGradeCalls.time(() -> {
+            if (course == null) {
+                return 0.0;
+            }
+
+            return course.getAverageGrade();
+        });
+    }
+
+    /**
+     * Checks whether a student is enrolled in a course using the course's
+     * enrollment bitmap
+     * @param student The student to check
+     * @param course The course to check
+     * @return true if the student is enrolled in the course
+     */
+    public boolean isEnrolled(Student student, Course course) {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            boolean enrolled = enrolledIn(student, course);
+            completed = true;
+            return enrolled;
+        } finally {
+            isEnrolledCalls.record(start, completed);
+        }
+    }
+
+    /**
+     * Checks an enrollment; the untimed body of isEnrolled
+     */
+    private boolean enrolledIn(Student student, Course course) {
+        if (student == null || course == null) {
+            return false;
+        }
+        int studentIndex = student.getStudentIndex();
+        if (studentIndex < 0 || !owns(course) || student.getRegistry() != this) {
+            return student.isEnrolledIn(course);
+        }
+        return course.hasEnrolledStudent(studentIndex);
+    }
+
+    /**
+     * Gets the students enrolled in a course
+     * @param course The course to list
+     * @return The enrolled students, in registration order
+     */
+    public List<Student> getEnrolledStudents(Course course) {
+        return getEnrolledStudentsCalls.time(() -> {
+            if (!owns(course)) {
+                return new ArrayList<>();
+            }
+            return toStudents(course.getEnrolledStudentSet());
+        });
+    }
+
+    /**
+     * Gets the students enrolled in every one of the given courses,
+     * by intersecting the courses' enrollment bitmaps
+     * @param courses The courses to intersect
+     * @return The students enrolled in all of them
+     */
+    public List<Student> getStudentsInAllCourses(Course... courses) {
+        return getStudentsInAllCoursesCalls.time(() -> {
+            if (courses == null || courses.length == 0) {
+                return new ArrayList<>();
+            }
+            CompactBitmap result = null;
+            for (Course course : courses) {
+                if (!owns(course)) {
+                    return new ArrayList<>();
+                }
+                CompactBitmap members = course.getEnrolledStudentSet();
+                result = result == null ? members : CompactBitmap.and(result, members);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return toStudents(result);
+        });
+    }
+
+    /**
+     * Gets the students enrolled in at least one of the given courses,
+     * by taking the union of the courses' enrollment bitmaps
+     * @param courses The courses to combine
+     * @return The students enrolled in any of them
+     */
+    public List<Student> getStudentsInAnyCourse(Course... courses) {
+        return getStudentsInAnyCourseCalls.time(() -> {
+            CompactBitmap result = new CompactBitmap();
+            if (courses != null) {
+                for (Course course : courses) {
+                    if (owns(course)) {
+                        result = CompactBitmap.or(result, course.getEnrolledStudentSet());
+                    }
+                }
+            }
+            return toStudents(result);
+        });
+    }
+
+    /**
+     * Maps a set of student indexes back to students
+     */
+    private List<Student> toStudents(CompactBitmap studentIndexes) {
+        List<Student> result = new ArrayList<>(studentIndexes.cardinality());
+        studentIndexes.forEach(index -> result.add(students.get(index)));
+        return result;
+    }
+
+    /**
+     * Gets all grades recorded for a course as one contiguous array
+     * @param course The course to read
+     * @return The course's grades, empty if the course is not registered
+     */
+    public double[] getCourseGrades(Course course) {
+        return getCourseGradesCalls.time(() -> courseGrades(course));
+    }
+
+    /**
+     * Copies a course's grade column; the untimed body of getCourseGrades
+     */
+    private double[] courseGrades(Course course) {
+        if (!owns(course)) {
+            return new double[0];
+        }
+        CourseShard shard = shardOf(course);
+        return shard.getGradeMatrix().columnGrades(shard.columnOf(course.getCourseIndex()));
+    }
+
+    /**
+     * Computes term-end grade statistics for every course in one parallel
+     * pass over the shards' grade columns. Each worker thread fills its
+     * own accumulator; the accumulators are merged once at the end.
+     * 
+     * @return The mean, median, standard deviation, percentiles and letter
+     *         counts of every registered course
+     */
+    public GradeDistributionReport getGradeDistributionReport() {
+        return getGradeDistributionReportCalls.time(() -> {
+            int courseCount = courses.size();
+            return IntStream.range(0, courseCount).parallel()
+                .collect(GradeDistributionReport.Accumulator::new,
+                         (accumulator, position) -> {
+                             Course course = courses.get(position);
+                             accumulator.add(position, course.getCourseCode(), courseGrades(course));
+                         },
+                         GradeDistributionReport.Accumulator::merge)
+                .build();
+        });
+    }
+
+    /**
+     * Gets the students with the highest overall grades
+     * @param n The maximum number of students to return
+     * @return Up to n graded students, best overall grade first
+     */
+    public List<Student> getTopStudents(int n) {
+        return getTopStudentsCalls.time(() -> leaderboard.top(n));
+    }
+
+    /**
+     * Gets the students with the highest grades in a course
+     * @param course The course to rank by
+     * @param n The maximum number of students to return
+     * @return Up to n graded students, best grade first
+     */
+    public List<Student> getTopStudents(Course course, int n) {
+        return getTopStudentsInCourseCalls.time(() -> {
+            GradeLeaderboard board = owns(course) ? shardOf(course).getLeaderboard(course) : null;
+            return board == null ? new ArrayList<>() : board.top(n);
+        });
+    }
+
+    /**
+     * Gets a student's rank by overall grade
+     * @param student The student to look up
+     * @return The 1-based rank, or -1 if the student has no grades
+     */
+    public int getStudentRank(Student student) {
+        return getStudentRankCalls.time(() -> student == null ? -1 : leaderboard.rankOf(student));
+    }
+
+    /**
+     * Gets a student's rank by grade within a course
+     * @param student The student to look up
+     * @param course The course to rank by
+     * @return The 1-based rank, or -1 if the student has no grade in the course
+     */
+    public int getStudentRank(Student student, Course course) {
+        return getStudentRankInCourseCalls.time(() -> {
+            GradeLeaderboard board = owns(course) ? shardOf(course).getLeaderboard(course) : null;
+            return board == null || student == null ? -1 : board.rankOf(student);
+        });
+    }
+
+    /**
+     * Gets the percentage of graded students ranked below a student
+     * @param student The student to look up
+     * @return The percentile (0-100), or -1 if the student has no grades
+     */
+    public double getStudentPercentile(Student student) {
+        return getStudentPercentileCalls.time(() -> student == null ? -1 : leaderboard.percentileOf(student));
+    }
+
+    /**
+     * Gets the percentage of a course's graded students ranked below a student
+     * @param student The student to look up
+     * @param course The course to rank by
+     * @return The percentile (0-100), or -1 if the student has no grade in the course
+     */
+    public double getStudentPercentile(Student student, Course course) {
+        return getStudentPercentileInCourseCalls.time(() -> {
+            GradeLeaderboard board = owns(course) ? shardOf(course).getLeaderboard(course) : null;
+            return board == null || student == null ? -1 : board.percentileOf(student);
+        });
+    }
+
+    /**
+     * Gets all courses in the system
+     * @return List of all courses
+     */
+    public List<Course> getAllCourses() {
+        return getAllCoursesCalls.time(() -> new ArrayList<>(courses));
+    }
+
+    /**
+     * Gets all students in the system
+     * @return List of all students
+     */
+    public List<Student> getAllStudents() {
+        return getAllStudentsCalls.time(() -> new ArrayList<>(students));
+    }
+
+    /**
+     * Gets a read-only live view of all courses, without copying.
+     * Courses are never removed, so the view only ever grows.
+     * @return Unmodifiable view of all courses in insertion order
+     */
+    public List<Course> getCoursesView() {
+        return getCoursesViewCalls.time(() -> courses);
+    }
+
+    /**
+     * Gets a read-only live view of all students, without copying.
+     * Students are never removed, so the view only ever grows.
+     * @return Unmodifiable view of all students in insertion order
+     */
+    public List<Student> getStudentsView() {
+        return getStudentsViewCalls.time(() -> students);
+    }
+
+    /**
+     * Gets one page of courses as a view, without copying.
+     * Positions are stable because courses are only ever appended, so the
+     * end of one page can be used as the start of the next.
+     * 
+     * @param offset The position of the first course on the page
+     * @param limit The maximum number of courses on the page
+     * @return Unmodifiable view of the page (empty past the end)
+     */
+    public List<Course> getCourses(int offset, int limit) {
+        return getCoursesCalls.time(() -> page(courses, offset, limit));
+    }
+
+    /**
+     * Gets one page of students as a view, without copying.
+     * Positions are stable because students are only ever appended, so the
+     * end of one page can be used as the start of the next.
+     * 
+     * @param offset The position of the first student on the page
+     * @param limit The maximum number of students on the page
+     * @return Unmodifiable view of the page (empty past the end)
+     */
+    public List<Student> getStudents(int offset, int limit) {
+        return getStudentsCalls.time(() -> page(students, offset, limit));
+    }
+
+    /**
+     * Runs an action for every course, without copying or allocating per course
+     * @param action The action to run
+     */
+    public void forEachCourse(Consumer<? super Course> action) {
+        forEachCourseCalls.run(() -> {
+            courses.forEach(action);
+        });
+    }
+
+    /**
+     * Runs an action for every student, without copying or allocating per student
+     * @param action The action to run
+     */
+    public void forEachStudent(Consumer<? super Student> action) {
+        forEachStudentCalls.run(() -> {
+            students.forEach(action);
+        });
+    }
+
+    /**
+     * Builds a bounded subList view of an append-only list
+     */
+    private static <T> List<T> page(AppendOnlyList<T> list, int offset, int limit) {
+        int size = list.size();
+        if (offset < 0 || limit <= 0 || offset >= size) {
+            return Collections.emptyList();
+        }
+        return list.subList(offset, Math.min(size, offset + limit));
+    }
+
+    /**
+     * Finds a course by its course code
+     * @param courseCode The course code to search for
+     * @return The Course object, or null if not found
+     */
+    public Course findCourseByCode(String courseCode) {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            Course found = courseByCode(courseCode);
+            completed = true;
+            return found;
+        } finally {
+            findCourseByCodeCalls.record(start, completed);
+        }
+    }
+
+    /**
+     * Finds a course by code; the untimed body of findCourseByCode
+     */
+    private Course courseByCode(String courseCode) {
+        int codeHandle = courseCodes.lookup(courseCode);
+        if (codeHandle < 0) {
+            return null;
+        }
+        return shardFor(codeHandle).findCourse(codeHandle);
+    }
+
+    /**
+     * Finds a student by their ID
+     * @param studentId The student ID to search for
+     * @return The Student object, or null if not found
+     */
+    public Student findStudentById(String studentId) {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            Student found = studentById(studentId);
+            completed = true;
+            return found;
+        } finally {
+            findStudentByIdCalls.record(start, completed);
+        }
+    }
+
+    /**
+     * Finds a student by ID; the untimed body of findStudentById
+     */
+    private Student studentById(String studentId) {
+        return studentsById.get(studentIds.lookup(studentId));
+    }
+
+    /**
+     * Adds a student to the system
+     * @param student The student to add
+     * @return true if added successfully, false if student already exists
+     */
+    public boolean addStudent(Student student) {
+        return addStudentCalls.time(() -> {
+            if (student == null || student.getStudentId() == null) {
+                return false;
+            }
+            
+            // Rejects both the same student and a duplicate student ID. The
+            // student's lock keeps enrollments from logging ahead of them.
+            long sequence;
+            synchronized (student) {
+                if (!registerStudent(student)) {
+                    return false;
+                }
+                CoursePersistence log = persistence;
+                sequence = log != null ? log.logAddStudent(student) : 0;
+            }
+            awaitDurable(sequence);
+            return true;
+        }, Boolean::booleanValue);
+    }
+
+    /**
+     * Registers a student under their ID if the ID is not yet taken
+     * @param student The student to register
+     * @return true if the student was newly registered
+     */
+    private boolean registerStudent(Student student) {
+        // Holding the student's lock means no grade for this student can be
+        // stored before its dense index has been assigned
+        synchronized (student) {
+            if (!claim(student) || student.getStudentId() == null) {
+                return false;
+            }
+            int idHandle = studentIds.intern(student.getStudentId());
+            if (studentsById.putIfAbsent(idHandle, student) != null) {
+                return false;
+            }
+            student.setIdHandle(idHandle);
+            student.setStudentIndex(students.append(student));
+            studentStatistics.reconcileStudent(student);
+            return true;
+        }
+    }
+
+    /**
+     * Gets a snapshot of the maintained enrollment statistics: seat fill,
+     * fill-level histogram, courses-per-student histogram and grade
+     * histogram. Nothing is scanned, so this is cheap enough to poll.
+     * Per-shard counters are added up at read time.
+     * @return The statistics snapshot
+     */
+    public EnrollmentStatistics.Snapshot getStatisticsSnapshot() {
+        return getStatisticsSnapshotCalls.time(() -> {
+            List<EnrollmentStatistics> parts = new ArrayList<>(shards.length + 1);
+            parts.add(studentStatistics);
+            for (CourseShard shard : shards) {
+                parts.add(shard.getStatistics());
+            }
+            return EnrollmentStatistics.combine(courses.size(), students.size(), getTotalEnrollments(), parts);
+        });
+    }
+
+    /**
+     * Gets the per-operation latency, throughput and error figures.
+     * A call counts as an error if it throws or returns a failure result
+     * (false, null or INVALID).
+     * @return The operation metrics
+     */
+    public OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the stream of enrollment, drop and grade events. Subscribers
+     * can resume from a sequence they saw earlier instead of rescanning.
+     * @return The event feed
+     */
+    public EnrollmentEventFeed getEventFeed() {
+        return eventFeed;
+    }
+
+    /**
+     * Gets the number of enrollments made through this registry, less
+     * drops. Each registry keeps its own count.
+     * @return The enrollment count
+     */
+    public int getTotalEnrollments() {
+        return totalEnrollments.intValue();
+    }
+
+    /**
+     * Restores the system from a persistence directory and logs every
+     * later change to it. The newest snapshot is loaded and the log written
+     * after it is replayed; snapshots are then taken periodically.
+     * 
+     * @param directory The directory holding snapshots and log segments
+     * @param checkpointIntervalSeconds Seconds between snapshots (0 to disable)
+     * @throws IOException if the directory cannot be read or written
+     * @throws IllegalStateException if persistence is already enabled
+     */
+    public synchronized void enablePersistence(Path directory, long checkpointIntervalSeconds)
+            throws IOException {
+        enablePersistenceCalls.run(() -> {
+            if (persistence != null) {
+                throw new IllegalStateException("Persistence is already enabled");
+            }
+            // Replay runs before the field is set, so restored changes are not logged again
+            persistence = CoursePersistence.open(this, directory, checkpointIntervalSeconds);
+        });
+    }
+
+    /**
+     * Writes a snapshot now and trims the log it covers
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void checkpoint() throws IOException {
+        checkpointCalls.run(() -> {
+            CoursePersistence log = persistence;
+            if (log != null) {
+                log.checkpoint();
+            }
+        });
+    }
+
+    /**
+     * Gets the failure of the latest automatic checkpoint
+     * @return The failure, or null if persistence is off or no automatic
+     *         checkpoint failed since the last successful one
+     */
+    public IOException getCheckpointFailure() {
+        CoursePersistence log = persistence;
+        return log == null ? null : log.getCheckpointFailure();
+    }
+
+    /**
+     * Flushes and closes the log; the system continues memory-only
+     * @throws IOException if the final flush fails or the latest automatic
+     *         checkpoint failed
+     */
+    public synchronized void disablePersistence() throws IOException {
+        disablePersistenceCalls.run(() -> {
+            CoursePersistence log = persistence;
+            persistence = null;
+            if (log != null) {
+                log.close();
+            }
+        });
+    }
+
+    /**
+     * Gets enrollment statistics
+     * @return String containing enrollment statistics
+     */
+    public String getEnrollmentStatistics() {
+        return getEnrollmentStatisticsCalls.time(() -> {
+            StringBuilder stats = new StringBuilder();
+            stats.append("Total Courses: ").append(courses.size()).append("\n");
+            stats.append("Total Students: ").append(students.size()).append("\n");
+            stats.append("Total Enrollments: ").append(getTotalEnrollments()).append("\n");
+            return stats.toString();
+        });
+    }
+}
\ No newline at end of file
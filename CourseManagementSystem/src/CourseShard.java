@@ -0,0 +1,154 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CourseShard holds one partition of a CourseRegistry's courses.
+ *
+ * Courses are assigned to shards by their course code's handle. Each
+ * shard has its own course lookup, grade columns, course leaderboards and
+ * fill/grade statistics, so operations on courses in different shards never
+ * touch the same structures.
+ *
+ * A course's registry-wide index is its position in the shard times the
+ * shard count plus the shard number, so indexes stay unique across shards
+ * and the shard and column can both be recovered from the index alone.
+ */
+class CourseShard {
+    private final int shardId;
+    private final int shardCount;
+
+    // Serializes course creation within the shard
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Courses of this shard, by code handle and by position
+    private final HandleTable<Course> coursesByCode = new HandleTable<>();
+    private final AppendOnlyList<Course> courses = new AppendOnlyList<>();
+
+    // One grade column per course of this shard
+    private final GradeMatrix gradeMatrix = new GradeMatrix();
+
+    // Fill and grade histograms of this shard's courses
+    private final EnrollmentStatistics statistics = new EnrollmentStatistics();
+
+    // Students ranked by grade, per course of this shard
+    private final Map<Course, GradeLeaderboard> courseLeaderboards = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty shard
+     * @param shardId The shard's number within its registry
+     * @param shardCount The number of shards in the registry
+     */
+    CourseShard(int shardId, int shardCount) {
+        this.shardId = shardId;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Gets the shard's number within its registry
+     * @return The shard number
+     */
+    int getShardId() {
+        return shardId;
+    }
+
+    /**
+     * Gets the lock that serializes course creation in this shard
+     * @return The shard lock
+     */
+    ReentrantLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Finds a course of this shard by code
+     * @param codeHandle The course code's handle
+     * @return The course, or null if not in this shard
+     */
+    Course findCourse(int codeHandle) {
+        return coursesByCode.get(codeHandle);
+    }
+
+    /**
+     * Adds a course to the shard and gives it its registry-wide index.
+     * Must be called with the shard lock held.
+     * @param course The new course
+     * @return The course's registry-wide index
+     */
+    int addCourse(Course course) {
+        int column = courses.append(course);
+        gradeMatrix.addColumn();
+        int courseIndex = column * shardCount + shardId;
+        course.setCourseIndex(courseIndex);
+        statistics.reconcileCourse(course);
+        return courseIndex;
+    }
+
+    /**
+     * Makes a course added with addCourse visible by code
+     * @param course The course to publish
+     */
+    void publish(Course course) {
+        coursesByCode.putIfAbsent(course.getCodeHandle(), course);
+    }
+
+    /**
+     * Gets a course of this shard by its grade column
+     * @param column The column, as returned by columnOf
+     * @return The course
+     */
+    Course getCourse(int column) {
+        return courses.get(column);
+    }
+
+    /**
+     * Gets the number of courses in this shard
+     * @return The course count
+     */
+    int getCourseCount() {
+        return courses.size();
+    }
+
+    /**
+     * Converts a registry-wide course index to this shard's grade column
+     * @param courseIndex The registry-wide course index
+     * @return The column in this shard's grade matrix
+     */
+    int columnOf(int courseIndex) {
+        return courseIndex / shardCount;
+    }
+
+    /**
+     * Gets the shard's grade store
+     * @return The grade matrix
+     */
+    GradeMatrix getGradeMatrix() {
+        return gradeMatrix;
+    }
+
+    /**
+     * Gets the shard's fill and grade statistics
+     * @return The statistics
+     */
+    EnrollmentStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets a course's leaderboard
+     * @param course The course
+     * @return The leaderboard, or null if nobody has been graded yet
+     */
+    GradeLeaderboard getLeaderboard(Course course) {
+        return courseLeaderboards.get(course);
+    }
+
+    /**
+     * Gets a course's leaderboard, creating it on first use
+     * @param course The course
+     * @return The leaderboard
+     */
+    GradeLeaderboard leaderboardFor(Course course) {
+        return courseLeaderboards.computeIfAbsent(course, c -> new GradeLeaderboard());
+    }
+}
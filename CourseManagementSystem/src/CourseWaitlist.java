@@ -0,0 +1,128 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CourseWaitlist is the first-in, first-out queue of students waiting for
+ * a seat in one course.
+ * 
+ * Each course has its own waitlist with its own lock, so queues for
+ * different courses never contend. Promotion reserves the course seat and
+ * removes the student from the queue in the same critical section, so a
+ * freed seat is never handed to two students and a waiting student is
+ * never skipped while a seat is available.
+ */
+public class CourseWaitlist {
+    private final Course course;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Student> queue = new ArrayDeque<>();
+    private final Set<Student> waiting = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Constructor to create an empty waitlist for a course
+     * @param course The course the waitlist belongs to
+     */
+    public CourseWaitlist(Course course) {
+        this.course = course;
+    }
+
+    /**
+     * Adds a student to the end of the waitlist
+     * @param student The student to add
+     * @return true if added, false if the student is already waiting
+     */
+    public boolean join(Student student) {
+        lock.lock();
+        try {
+            if (!waiting.add(student)) {
+                return false;
+            }
+            queue.addLast(student);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a student from the waitlist
+     * @param student The student to remove
+     * @return true if the student was waiting
+     */
+    public boolean leave(Student student) {
+        lock.lock();
+        try {
+            if (!waiting.remove(student)) {
+                return false;
+            }
+            queue.removeFirstOccurrence(student);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets a student's position in the waitlist
+     * @param student The student to look up
+     * @return The 1-based position, or -1 if the student is not waiting
+     */
+    public int positionOf(Student student) {
+        lock.lock();
+        try {
+            if (!waiting.contains(student)) {
+                return -1;
+            }
+            int position = 1;
+            Iterator<Student> iterator = queue.iterator();
+            while (iterator.hasNext() && iterator.next() != student) {
+                position++;
+            }
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of waiting students
+     * @return The waitlist length
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes students from the front of the queue for as many seats as
+     * can be reserved, up to a limit. Each returned student already holds
+     * a reserved seat in the course and must be enrolled or have the seat
+     * released by the caller.
+     * @param limit The maximum number of students to promote
+     * @return The promoted students, in queue order
+     */
+    List<Student> pollWithSeats(int limit) {
+        lock.lock();
+        try {
+            int seats = course.tryReserveSeats(Math.min(limit, queue.size()));
+            List<Student> promoted = new ArrayList<>(seats);
+            for (int i = 0; i < seats; i++) {
+                Student student = queue.pollFirst();
+                waiting.remove(student);
+                promoted.add(student);
+            }
+            return promoted;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * EnrollmentBatch collects (student ID, course code) pairs so they can be
+ * applied together through CourseManagement.enrollBatch.
+ * 
+ * Pairs are stored in parallel arrays rather than one object per pair,
+ * which keeps large registration-day batches cheap to build.
+ */
+public class EnrollmentBatch {
+    private String[] studentIds;
+    private String[] courseCodes;
+    private long[] lineNumbers;
+    private int size;
+
+    /**
+     * Constructor to create an empty batch
+     */
+    public EnrollmentBatch() {
+        this(64);
+    }
+
+    /**
+     * Constructor to create an empty batch with room for a number of pairs
+     * @param initialCapacity The expected number of pairs
+     */
+    public EnrollmentBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.studentIds = new String[capacity];
+        this.courseCodes = new String[capacity];
+        this.lineNumbers = new long[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Adds an enrollment request to the batch
+     * @param studentId The ID of the student to enroll
+     * @param courseCode The code of the course to enroll in
+     */
+    public void add(String studentId, String courseCode) {
+        add(studentId, courseCode, size + 1);
+    }
+
+    /**
+     * Adds an enrollment request with the line number it came from,
+     * so failures can be traced back to the source file
+     * @param studentId The ID of the student to enroll
+     * @param courseCode The code of the course to enroll in
+     * @param lineNumber The source line number of the request
+     */
+    public void add(String studentId, String courseCode, long lineNumber) {
+        if (size == studentIds.length) {
+            int capacity = studentIds.length * 2;
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            courseCodes = Arrays.copyOf(courseCodes, capacity);
+            lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+        }
+        studentIds[size] = studentId;
+        courseCodes[size] = courseCode;
+        lineNumbers[size] = lineNumber;
+        size++;
+    }
+
+    /**
+     * Gets the number of pairs in the batch
+     * @return The batch size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the batch has no pairs
+     * @return true if the batch is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all pairs so the batch can be reused
+     */
+    public void clear() {
+        Arrays.fill(studentIds, 0, size, null);
+        Arrays.fill(courseCodes, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Gets the student ID at a position in the batch
+     * @param index The position in the batch
+     * @return The student ID
+     */
+    public String getStudentId(int index) {
+        return studentIds[index];
+    }
+
+    /**
+     * Gets the course code at a position in the batch
+     * @param index The position in the batch
+     * @return The course code
+     */
+    public String getCourseCode(int index) {
+        return courseCodes[index];
+    }
+
+    /**
+     * Gets the source line number at a position in the batch
+     * @param index The position in the batch
+     * @return The line number
+     */
+    public long getLineNumber(int index) {
+        return lineNumbers[index];
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * EnrollmentCsvImporter streams "studentId,courseCode" rows from a CSV
+ * source and applies them through CourseManagement.enrollBatch.
+ * 
+ * Rows are read line by line and applied in fixed-size batches, so the
+ * whole file is never held in memory. An optional header row is skipped.
+ */
+public class EnrollmentCsvImporter {
+    // Default number of rows applied per batch
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private EnrollmentCsvImporter() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Imports enrollments using the default batch size
+     * @param source The CSV source
+     * @return A report covering every row of the source
+     * @throws IOException if reading the source fails
+     */
+    public static BatchEnrollmentReport importEnrollments(Reader source) throws IOException {
+        return importEnrollments(source, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Imports enrollments from a CSV source
+     * @param source The CSV source with one "studentId,courseCode" pair per line
+     * @param batchSize The number of rows applied together
+     * @return A report covering every row of the source
+     * @throws IOException if reading the source fails
+     */
+    public static BatchEnrollmentReport importEnrollments(Reader source, int batchSize) throws IOException {
+        BatchEnrollmentReport report = new BatchEnrollmentReport();
+        EnrollmentBatch batch = new EnrollmentBatch(Math.max(1, batchSize));
+        BufferedReader reader = source instanceof BufferedReader
+            ? (BufferedReader) source : new BufferedReader(source);
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (lineNumber == 1 && line.toLowerCase().startsWith("studentid")) {
+                continue; // Skip header row
+            }
+
+            int comma = line.indexOf(',');
+            if (comma < 0 || line.indexOf(',', comma + 1) >= 0) {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.INVALID_ROW, lineNumber, line, "");
+                continue;
+            }
+            String studentId = line.substring(0, comma).trim();
+            String courseCode = line.substring(comma + 1).trim();
+            if (studentId.isEmpty() || courseCode.isEmpty()) {
+                report.recordFailure(BatchEnrollmentReport.FailureReason.INVALID_ROW, lineNumber, studentId, courseCode);
+                continue;
+            }
+
+            batch.add(studentId, courseCode, lineNumber);
+            if (batch.size() >= batchSize) {
+                report.merge(CourseManagement.enrollBatch(batch));
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            report.merge(CourseManagement.enrollBatch(batch));
+        }
+        return report;
+    }
+}
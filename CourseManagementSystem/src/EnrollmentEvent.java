@@ -0,0 +1,86 @@
+/**
+ * EnrollmentEvent records one successful change published on an
+ * EnrollmentEventFeed: an enrollment, a drop or a grade.
+ *
+ * Students and courses are identified by ID and code rather than by
+ * object, so events can be handed to other systems as they are.
+ */
+public final class EnrollmentEvent {
+    /**
+     * Kinds of change
+     */
+    public enum Type {
+        ENROLLED,
+        DROPPED,
+        GRADE_ASSIGNED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final String studentId;
+    private final String courseCode;
+    private final double grade;
+    private final long timestampMillis;
+
+    /**
+     * Constructor to create an event
+     * @param sequence The event's position in its feed
+     * @param type The kind of change
+     * @param studentId The student's ID
+     * @param courseCode The course's code
+     * @param grade The assigned grade, or NaN if the event has none
+     * @param timestampMillis When the event was published
+     */
+    EnrollmentEvent(long sequence, Type type, String studentId, String courseCode,
+                    double grade, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.studentId = studentId;
+        this.courseCode = courseCode;
+        this.grade = grade;
+        this.timestampMillis = timestampMillis;
+    }
+
+    /**
+     * Gets the event's position in its feed. Sequences start at 1 and
+     * increase by one per event.
+     * @return The sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    /**
+     * Gets the assigned grade of a GRADE_ASSIGNED event
+     * @return The grade, or NaN for other event types
+     */
+    public double getGrade() {
+        return grade;
+    }
+
+    /**
+     * Gets the time the event was published
+     * @return Milliseconds since the epoch
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Event{#" + sequence + " " + type + " Student='" + studentId + "', Course='" + courseCode + "'"
+            + (type == Type.GRADE_ASSIGNED ? ", Grade=" + grade : "") + "}";
+    }
+}
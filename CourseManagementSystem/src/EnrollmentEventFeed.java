@@ -0,0 +1,400 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * EnrollmentEventFeed is an in-process stream of enrollment, drop and
+ * grade events, numbered in publication order.
+ *
+ * The most recent events are kept in a fixed-size ring, so a subscriber
+ * can start from any sequence still in the ring and catch up on what it
+ * missed without rescanning students. Each subscription has its own
+ * delivery thread and receives events in batches of up to a chosen size.
+ *
+ * A publisher claims the next sequence with one atomic increment and
+ * stores the event in its ring slot. Before overwriting an event a
+ * subscriber has not received yet, it waits for that subscriber, but only
+ * up to the subscription's maximum wait. A subscriber that makes a
+ * publisher wait that long is marked as lagging: publishers stop waiting
+ * for it and it loses the events overwritten meanwhile, which it can read
+ * from getLostCount(), until it has caught up again. Every wait is
+ * bounded, so the registry can publish while it still holds the
+ * student's lock, which keeps each student's events in the order of the
+ * changes, and a subscriber may call back into the registry; a callback
+ * that needs a lock held by a waiting publisher costs that subscriber its
+ * maximum wait and the events it then misses.
+ */
+public class EnrollmentEventFeed {
+    /**
+     * Default number of events kept for catching up
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Default longest time a publisher waits for one subscriber
+     */
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 1000;
+
+    // Each slot holds the newest event stored for its sequences; the event's
+    // own sequence tells readers whether it is the one they expect
+    private final AtomicReferenceArray<EnrollmentEvent> ring;
+    private final int mask;
+
+    // Sequence of the most recently claimed event
+    private final AtomicLong lastClaimed = new AtomicLong();
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * A subscriber's position in the feed and its delivery thread
+     */
+    public final class Subscription implements AutoCloseable {
+        private final int maxBatchSize;
+        private final long maxWaitNanos;
+        private final Consumer<List<EnrollmentEvent>> handler;
+        private final Thread thread;
+
+        // Sequence of the next event to deliver; written only by the delivery thread
+        private volatile long cursor;
+        private volatile boolean active = true;
+
+        // Set while the delivery thread is about to park, so publishers wake it
+        private volatile boolean waiting;
+
+        // Publishers waiting for the cursor to advance, guarded by this subscription
+        private volatile int waitingPublishers;
+
+        // Set when a publisher gave up waiting, until the subscriber catches up
+        private volatile boolean lagging;
+
+        // Events overwritten before delivery; written only by the delivery thread
+        private volatile long lost;
+
+        // Exception thrown by the handler, which stopped delivery
+        private volatile RuntimeException failure;
+
+        private Subscription(long fromSequence, int maxBatchSize, long maxWaitMillis,
+                             Consumer<List<EnrollmentEvent>> handler) {
+            this.cursor = fromSequence;
+            this.maxBatchSize = maxBatchSize;
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            this.handler = handler;
+            this.thread = new Thread(this::deliver, "enrollment-feed-subscriber");
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Gets the sequence of the next event this subscriber will receive.
+         * Storing it lets a consumer resume from the same point later.
+         * @return The next sequence number
+         */
+        public long getNextSequence() {
+            return cursor;
+        }
+
+        /**
+         * Checks whether events are still being delivered
+         * @return true until closed or the handler fails
+         */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Gets the number of events overwritten before this subscriber
+         * received them
+         * @return The lost event count
+         */
+        public long getLostCount() {
+            return lost;
+        }
+
+        /**
+         * Checks whether publishers have stopped waiting for this subscriber
+         * @return true from a publisher's timed-out wait until caught up
+         */
+        public boolean isLagging() {
+            return lagging;
+        }
+
+        /**
+         * Gets the exception that stopped delivery
+         * @return The handler's exception, or null if it has not failed
+         */
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+        /**
+         * Stops delivery. A batch already being handled is finished first.
+         */
+        @Override
+        public void close() {
+            active = false;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+            releasePublishers();
+        }
+
+        /**
+         * Delivery loop: collects the published events from the cursor on,
+         * hands them to the handler and only then advances the cursor
+         */
+        private void deliver() {
+            List<EnrollmentEvent> batch = new ArrayList<>();
+            while (active) {
+                collect(batch);
+                if (batch.isEmpty()) {
+                    // Re-check after announcing the wait, so a publish between
+                    // the check and the park cannot be missed
+                    waiting = true;
+                    if (!isPublished(cursor)) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                    if (Thread.interrupted()) {
+                        active = false;
+                    }
+                    continue;
+                }
+
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    failure = e;
+                    break;
+                }
+                cursor += batch.size();
+                batch = new ArrayList<>();
+                if (lagging && cursor > lastClaimed.get() - ring.length() / 2) {
+                    lagging = false;
+                }
+                releasePublishers();
+            }
+            active = false;
+            subscriptions.remove(this);
+            releasePublishers();
+        }
+
+        /**
+         * Copies up to a batch of consecutive published events, skipping the
+         * cursor past events that were overwritten before being read
+         */
+        private void collect(List<EnrollmentEvent> batch) {
+            long sequence = cursor;
+            while (batch.size() < maxBatchSize) {
+                EnrollmentEvent event = ring.get((int) sequence & mask);
+                if (event == null || event.getSequence() < sequence) {
+                    return; // Claimed but not stored yet, or not claimed
+                }
+                if (event.getSequence() > sequence) {
+                    if (!batch.isEmpty()) {
+                        return; // Deliver what is consecutive first
+                    }
+                    // Lapped: resume from the oldest sequence still kept
+                    long resume = Math.max(sequence + 1, oldestSequence());
+                    lost += resume - sequence;
+                    sequence = resume;
+                    cursor = sequence;
+                    continue;
+                }
+                batch.add(event);
+                sequence++;
+            }
+        }
+
+        private void wake() {
+            if (waiting) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Waits until this subscriber has received an event, at most the
+         * maximum wait; marks the subscriber as lagging if the wait runs out
+         * @param sequence The event a publisher is about to overwrite
+         */
+        private void awaitDelivered(long sequence) {
+            if (cursor > sequence || lagging || !active) {
+                return;
+            }
+            long deadline = System.nanoTime() + maxWaitNanos;
+            synchronized (this) {
+                waitingPublishers++;
+                try {
+                    while (cursor <= sequence && active && !lagging) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            lagging = true;
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    waitingPublishers--;
+                }
+            }
+        }
+
+        private void releasePublishers() {
+            if (waitingPublishers > 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a feed keeping the default number of events
+     */
+    public EnrollmentEventFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a feed
+     * @param capacity The number of recent events kept, rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public EnrollmentEventFeed(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid feed capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Publishes an event. If the event would overwrite one a subscriber
+     * has not received yet, waits for that subscriber first, at most its
+     * maximum wait. If a slower publisher's event would overwrite a newer
+     * one in the same slot, the older event is dropped instead.
+     * @param type The kind of change
+     * @param studentId The student's ID
+     * @param courseCode The course's code
+     * @param grade The assigned grade, or NaN if the event has none
+     * @return The event's sequence number
+     */
+    long publish(EnrollmentEvent.Type type, String studentId, String courseCode, double grade) {
+        long sequence = lastClaimed.incrementAndGet();
+        long overwritten = sequence - ring.length();
+        if (overwritten > 0) {
+            for (Subscription subscription : subscriptions) {
+                subscription.awaitDelivered(overwritten);
+            }
+        }
+        EnrollmentEvent event = new EnrollmentEvent(sequence, type, studentId, courseCode,
+            grade, System.currentTimeMillis());
+        int slot = (int) sequence & mask;
+        while (true) {
+            EnrollmentEvent current = ring.get(slot);
+            if (current != null && current.getSequence() > sequence) {
+                break;
+            }
+            if (ring.compareAndSet(slot, current, event)) {
+                break;
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.wake();
+        }
+        return sequence;
+    }
+
+    /**
+     * Starts delivering events to a handler on a new thread
+     * @param fromSequence The first sequence to deliver; use
+     *        getLatestSequence() + 1 for new events only
+     * @param maxBatchSize The largest number of events per handler call
+     * @param maxWaitMillis The longest a publisher waits for this subscriber
+     *        before letting it lose events
+     * @param handler Receives each batch, in sequence order
+     * @return The subscription, or null if fromSequence is no longer kept
+     *         or the arguments are invalid
+     */
+    public Subscription subscribe(long fromSequence, int maxBatchSize, long maxWaitMillis,
+                                  Consumer<List<EnrollmentEvent>> handler) {
+        if (handler == null || maxBatchSize <= 0 || maxWaitMillis < 0) {
+            return null;
+        }
+        if (fromSequence < oldestSequence() || fromSequence > lastClaimed.get() + 1) {
+            return null;
+        }
+        Subscription subscription = new Subscription(fromSequence, maxBatchSize, maxWaitMillis, handler);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * Starts delivering events to a handler on a new thread, with the
+     * default maximum wait
+     * @param fromSequence The first sequence to deliver; use
+     *        getLatestSequence() + 1 for new events only
+     * @param maxBatchSize The largest number of events per handler call
+     * @param handler Receives each batch, in sequence order
+     * @return The subscription, or null if fromSequence is no longer kept
+     *         or the arguments are invalid
+     */
+    public Subscription subscribe(long fromSequence, int maxBatchSize, Consumer<List<EnrollmentEvent>> handler) {
+        return subscribe(fromSequence, maxBatchSize, DEFAULT_MAX_WAIT_MILLIS, handler);
+    }
+
+    /**
+     * Starts delivering events published from now on
+     * @param maxBatchSize The largest number of events per handler call
+     * @param handler Receives each batch, in sequence order
+     * @return The subscription, or null if the arguments are invalid
+     */
+    public Subscription subscribe(int maxBatchSize, Consumer<List<EnrollmentEvent>> handler) {
+        return subscribe(lastClaimed.get() + 1, maxBatchSize, handler);
+    }
+
+    /**
+     * Gets the sequence of the most recently published event
+     * @return The latest sequence, or 0 if nothing was published
+     */
+    public long getLatestSequence() {
+        return lastClaimed.get();
+    }
+
+    /**
+     * Gets the oldest sequence a new subscriber can start from
+     * @return The oldest kept sequence
+     */
+    public long getOldestSequence() {
+        return oldestSequence();
+    }
+
+    /**
+     * Gets the number of active subscriptions
+     * @return The subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private long oldestSequence() {
+        return Math.max(1, lastClaimed.get() - ring.length() + 1);
+    }
+
+    /**
+     * Checks whether an event at or past a sequence has been stored
+     */
+    private boolean isPublished(long sequence) {
+        EnrollmentEvent event = ring.get((int) sequence & mask);
+        return event != null && event.getSequence() >= sequence;
+    }
+}
@@ -0,0 +1,255 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EnrollmentStatistics keeps dashboard statistics up to date as changes
+ * happen, so reading them never scans courses or students.
+ * 
+ * Three histograms are maintained:
+ * - how full courses are, in 10% buckets plus one bucket for full courses
+ * - how many courses each student takes (the last bucket is "10 or more")
+ * - how grades are spread, in 10-point buckets
+ * 
+ * Each course and student remembers which bucket it is currently counted
+ * in. After a change, CourseManagement asks for it to be reconciled: it is
+ * moved out of its old bucket and into the one for its current state.
+ * Reconciling under the course's or student's lock keeps the histograms
+ * exact even when changes race.
+ */
+public class EnrollmentStatistics {
+    public static final int FILL_BUCKETS = 11;
+    public static final int COURSE_COUNT_BUCKETS = 11;
+    public static final int GRADE_BUCKETS = 10;
+
+    private final AtomicLongArray fillHistogram = new AtomicLongArray(FILL_BUCKETS);
+    private final AtomicLongArray courseCountHistogram = new AtomicLongArray(COURSE_COUNT_BUCKETS);
+    private final AtomicLongArray gradeHistogram = new AtomicLongArray(GRADE_BUCKETS);
+    private final LongAdder totalSeats = new LongAdder();
+
+    /**
+     * Immutable copy of the statistics at one point in time
+     */
+    public static final class Snapshot {
+        private final int totalCourses;
+        private final int totalStudents;
+        private final int totalEnrollments;
+        private final long totalSeats;
+        private final long[] fillHistogram;
+        private final long[] courseCountHistogram;
+        private final long[] gradeHistogram;
+
+        Snapshot(int totalCourses, int totalStudents, int totalEnrollments, long totalSeats,
+                 long[] fillHistogram, long[] courseCountHistogram, long[] gradeHistogram) {
+            this.totalCourses = totalCourses;
+            this.totalStudents = totalStudents;
+            this.totalEnrollments = totalEnrollments;
+            this.totalSeats = totalSeats;
+            this.fillHistogram = fillHistogram;
+            this.courseCountHistogram = courseCountHistogram;
+            this.gradeHistogram = gradeHistogram;
+        }
+
+        public int getTotalCourses() {
+            return totalCourses;
+        }
+
+        public int getTotalStudents() {
+            return totalStudents;
+        }
+
+        public int getTotalEnrollments() {
+            return totalEnrollments;
+        }
+
+        public long getTotalSeats() {
+            return totalSeats;
+        }
+
+        /**
+         * Gets the share of all seats that are taken
+         * @return The overall fill ratio (0.0 to 1.0)
+         */
+        public double getOverallFillRatio() {
+            return totalSeats == 0 ? 0.0 : (double) totalEnrollments / totalSeats;
+        }
+
+        /**
+         * Gets the number of courses per fill bucket. Bucket i holds courses
+         * that are i*10% to (i+1)*10% full; the last bucket holds full courses.
+         * @return Copy of the course fill histogram
+         */
+        public long[] getFillHistogram() {
+            return fillHistogram.clone();
+        }
+
+        /**
+         * Gets the number of students per course count. Bucket i holds
+         * students taking i courses; the last bucket holds 10 or more.
+         * @return Copy of the course count histogram
+         */
+        public long[] getCourseCountHistogram() {
+            return courseCountHistogram.clone();
+        }
+
+        /**
+         * Gets the number of grades per 10-point bucket. Bucket i holds
+         * grades from i*10 up to (i+1)*10; the last bucket includes 100.
+         * @return Copy of the grade histogram
+         */
+        public long[] getGradeHistogram() {
+            return gradeHistogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder stats = new StringBuilder();
+            stats.append("Total Courses: ").append(totalCourses).append("\n");
+            stats.append("Total Students: ").append(totalStudents).append("\n");
+            stats.append("Total Enrollments: ").append(totalEnrollments).append("\n");
+            stats.append(String.format("Seats Filled: %d/%d (%.1f%%)%n",
+                totalEnrollments, totalSeats, getOverallFillRatio() * 100));
+            stats.append("Courses by Fill Level:\n");
+            for (int i = 0; i < FILL_BUCKETS; i++) {
+                String label = i == FILL_BUCKETS - 1 ? "Full" : (i * 10) + "-" + (i * 10 + 9) + "%";
+                stats.append(String.format("  %-8s %d%n", label, fillHistogram[i]));
+            }
+            stats.append("Students by Course Count:\n");
+            for (int i = 0; i < COURSE_COUNT_BUCKETS; i++) {
+                String label = i == COURSE_COUNT_BUCKETS - 1 ? i + "+" : String.valueOf(i);
+                stats.append(String.format("  %-8s %d%n", label, courseCountHistogram[i]));
+            }
+            stats.append("Grades by Range:\n");
+            for (int i = 0; i < GRADE_BUCKETS; i++) {
+                String label = i * 10 + "-" + (i == GRADE_BUCKETS - 1 ? 100 : i * 10 + 9);
+                stats.append(String.format("  %-8s %d%n", label, gradeHistogram[i]));
+            }
+            return stats.toString();
+        }
+    }
+
+    /**
+     * Moves a course into the fill bucket matching its current enrollment
+     * @param course The course whose enrollment or capacity changed
+     */
+    public void reconcileCourse(Course course) {
+        synchronized (course) {
+            int capacity = course.getMaximumCapacity();
+            int bucket = fillBucket(course.getCurrentEnrollment(), capacity);
+            int previous = course.getStatisticsBucket();
+            if (bucket == previous) {
+                return;
+            }
+            if (previous < 0) {
+                totalSeats.add(capacity);
+            }
+            move(fillHistogram, previous, bucket);
+            course.setStatisticsBucket(bucket);
+        }
+    }
+
+    /**
+     * Records seats added to an already counted course
+     * @param additionalSeats The number of seats added
+     */
+    public void addSeats(int additionalSeats) {
+        totalSeats.add(additionalSeats);
+    }
+
+    /**
+     * Moves a student into the bucket matching their current course count
+     * @param student The registered student whose enrollments changed
+     */
+    public void reconcileStudent(Student student) {
+        synchronized (student) {
+            int bucket = Math.min(student.getEnrolledCourseCount(), COURSE_COUNT_BUCKETS - 1);
+            int previous = student.getStatisticsBucket();
+            if (bucket != previous) {
+                move(courseCountHistogram, previous, bucket);
+                student.setStatisticsBucket(bucket);
+            }
+        }
+    }
+
+    /**
+     * Records a new or overwritten grade
+     * @param previous The replaced grade, or NaN for a new grade
+     * @param grade The new grade
+     */
+    public void recordGrade(double previous, double grade) {
+        move(gradeHistogram, Double.isNaN(previous) ? -1 : gradeBucket(previous), gradeBucket(grade));
+    }
+
+    /**
+     * Copies the current counters into an immutable snapshot.
+     * Counters are read one by one without a lock, so a snapshot taken
+     * while changes are in flight may be off by those changes.
+     * @param totalCourses The number of registered courses
+     * @param totalStudents The number of registered students
+     * @param totalEnrollments The number of enrollments
+     * @return The snapshot
+     */
+    public Snapshot snapshot(int totalCourses, int totalStudents, int totalEnrollments) {
+        return new Snapshot(totalCourses, totalStudents, totalEnrollments, totalSeats.sum(),
+            copy(fillHistogram), copy(courseCountHistogram), copy(gradeHistogram));
+    }
+
+    /**
+     * Adds up several sets of counters into one snapshot. A sharded
+     * registry keeps separate statistics per shard and combines them here.
+     * @param totalCourses The number of registered courses
+     * @param totalStudents The number of registered students
+     * @param totalEnrollments The number of enrollments
+     * @param parts The statistics to add up
+     * @return The combined snapshot
+     */
+    public static Snapshot combine(int totalCourses, int totalStudents, int totalEnrollments,
+                                   List<EnrollmentStatistics> parts) {
+        long seats = 0;
+        long[] fill = new long[FILL_BUCKETS];
+        long[] courseCounts = new long[COURSE_COUNT_BUCKETS];
+        long[] grades = new long[GRADE_BUCKETS];
+        for (EnrollmentStatistics part : parts) {
+            seats += part.totalSeats.sum();
+            addInto(fill, part.fillHistogram);
+            addInto(courseCounts, part.courseCountHistogram);
+            addInto(grades, part.gradeHistogram);
+        }
+        return new Snapshot(totalCourses, totalStudents, totalEnrollments, seats, fill, courseCounts, grades);
+    }
+
+    private static int fillBucket(int enrolled, int capacity) {
+        if (capacity <= 0 || enrolled >= capacity) {
+            return FILL_BUCKETS - 1;
+        }
+        return (int) ((long) enrolled * (FILL_BUCKETS - 1) / capacity);
+    }
+
+    private static int gradeBucket(double grade) {
+        return Math.max(0, Math.min(GRADE_BUCKETS - 1, (int) (grade / 10)));
+    }
+
+    private static void move(AtomicLongArray histogram, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (from >= 0) {
+            histogram.decrementAndGet(from);
+        }
+        histogram.incrementAndGet(to);
+    }
+
+    private static long[] copy(AtomicLongArray histogram) {
+        long[] values = new long[histogram.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = histogram.get(i);
+        }
+        return values;
+    }
+
+    private static void addInto(long[] totals, AtomicLongArray histogram) {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += histogram.get(i);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+import java.util.Arrays;
+
+/**
+ * GradeDistributionReport holds term-end grade statistics for every
+ * course: count, mean, median, standard deviation, fixed percentiles and
+ * letter-grade counts, plus the same figures across all grades.
+ *
+ * Figures are stored in parallel primitive arrays with one row per course,
+ * in registration order, so a report for tens of thousands of courses
+ * stays small and is cheap to scan. Reports are built by Accumulators,
+ * one per worker thread, that are merged when the parallel pass ends.
+ */
+public class GradeDistributionReport {
+    /**
+     * Percentiles reported for each course, in the order of getPercentiles
+     */
+    public static final double[] PERCENTILES = {10, 25, 75, 90};
+
+    /**
+     * Letter grades, best first
+     */
+    public static final String[] LETTERS = {"A", "B", "C", "D", "E", "F"};
+
+    // Lowest grade earning each letter
+    private static final double[] LETTER_MINIMUMS = {70, 60, 50, 45, 40, 0};
+
+    private final int rows;
+    private final String[] courseCodes;
+    private final int[] counts;
+    private final double[] means;
+    private final double[] medians;
+    private final double[] deviations;
+    private final double[] percentiles;
+    private final int[] letterCounts;
+
+    private final long totalGrades;
+    private final double overallMean;
+    private final double overallDeviation;
+    private final long[] overallLetterCounts;
+
+    /**
+     * Collects per-course figures on one thread. Accumulators from
+     * different threads are merged with merge(), then turned into a
+     * report with build().
+     */
+    static final class Accumulator {
+        private int size;
+        private int[] positions = new int[16];
+        private String[] courseCodes = new String[16];
+        private int[] counts = new int[16];
+        private double[] means = new double[16];
+        private double[] medians = new double[16];
+        private double[] deviations = new double[16];
+        private double[] percentiles = new double[16 * PERCENTILES.length];
+        private int[] letterCounts = new int[16 * LETTERS.length];
+
+        // Running totals over all grades, combined with Chan's formula
+        private long totalGrades;
+        private double overallMean;
+        private double overallSquares;
+        private final long[] overallLetterCounts = new long[LETTERS.length];
+
+        /**
+         * Adds one course's figures
+         * @param position The course's registration position, for ordering
+         * @param courseCode The course code
+         * @param grades The course's grades; sorted in place
+         */
+        void add(int position, String courseCode, double[] grades) {
+            Arrays.sort(grades);
+            int n = grades.length;
+            ensureCapacity(size + 1);
+
+            double sum = 0;
+            for (double grade : grades) {
+                sum += grade;
+            }
+            double mean = n == 0 ? Double.NaN : sum / n;
+            double squares = 0;
+            int letterBase = size * LETTERS.length;
+            for (double grade : grades) {
+                squares += (grade - mean) * (grade - mean);
+                letterCounts[letterBase + letterOf(grade)]++;
+            }
+
+            positions[size] = position;
+            courseCodes[size] = courseCode;
+            counts[size] = n;
+            means[size] = mean;
+            deviations[size] = n == 0 ? Double.NaN : Math.sqrt(squares / n);
+            if (n == 0) {
+                medians[size] = Double.NaN;
+            } else {
+                medians[size] = n % 2 == 1 ? grades[n / 2] : (grades[n / 2 - 1] + grades[n / 2]) / 2;
+            }
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                percentiles[size * PERCENTILES.length + p] = percentileOf(grades, PERCENTILES[p]);
+            }
+            for (int l = 0; l < LETTERS.length; l++) {
+                overallLetterCounts[l] += letterCounts[letterBase + l];
+            }
+            size++;
+
+            if (n > 0) {
+                combineTotals(n, mean, squares);
+            }
+        }
+
+        /**
+         * Moves another accumulator's courses and totals into this one
+         * @param other The accumulator to absorb
+         */
+        void merge(Accumulator other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.positions, 0, positions, size, other.size);
+            System.arraycopy(other.courseCodes, 0, courseCodes, size, other.size);
+            System.arraycopy(other.counts, 0, counts, size, other.size);
+            System.arraycopy(other.means, 0, means, size, other.size);
+            System.arraycopy(other.medians, 0, medians, size, other.size);
+            System.arraycopy(other.deviations, 0, deviations, size, other.size);
+            System.arraycopy(other.percentiles, 0, percentiles, size * PERCENTILES.length,
+                             other.size * PERCENTILES.length);
+            System.arraycopy(other.letterCounts, 0, letterCounts, size * LETTERS.length,
+                             other.size * LETTERS.length);
+            size += other.size;
+
+            for (int l = 0; l < LETTERS.length; l++) {
+                overallLetterCounts[l] += other.overallLetterCounts[l];
+            }
+            if (other.totalGrades > 0) {
+                combineTotals(other.totalGrades, other.overallMean, other.overallSquares);
+            }
+        }
+
+        /**
+         * Builds the report, with courses in registration order
+         * @return The report
+         */
+        GradeDistributionReport build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(positions[a], positions[b]));
+            return new GradeDistributionReport(this, order);
+        }
+
+        private void combineTotals(long n, double mean, double squares) {
+            long combined = totalGrades + n;
+            double delta = mean - overallMean;
+            overallSquares += squares + delta * delta * totalGrades * n / combined;
+            overallMean += delta * n / combined;
+            totalGrades = combined;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= positions.length) {
+                return;
+            }
+            int capacity = Math.max(needed, positions.length * 2);
+            positions = Arrays.copyOf(positions, capacity);
+            courseCodes = Arrays.copyOf(courseCodes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            means = Arrays.copyOf(means, capacity);
+            medians = Arrays.copyOf(medians, capacity);
+            deviations = Arrays.copyOf(deviations, capacity);
+            percentiles = Arrays.copyOf(percentiles, capacity * PERCENTILES.length);
+            letterCounts = Arrays.copyOf(letterCounts, capacity * LETTERS.length);
+        }
+    }
+
+    private GradeDistributionReport(Accumulator source, Integer[] order) {
+        rows = order.length;
+        courseCodes = new String[rows];
+        counts = new int[rows];
+        means = new double[rows];
+        medians = new double[rows];
+        deviations = new double[rows];
+        percentiles = new double[rows * PERCENTILES.length];
+        letterCounts = new int[rows * LETTERS.length];
+        for (int row = 0; row < rows; row++) {
+            int from = order[row];
+            courseCodes[row] = source.courseCodes[from];
+            counts[row] = source.counts[from];
+            means[row] = source.means[from];
+            medians[row] = source.medians[from];
+            deviations[row] = source.deviations[from];
+            System.arraycopy(source.percentiles, from * PERCENTILES.length,
+                             percentiles, row * PERCENTILES.length, PERCENTILES.length);
+            System.arraycopy(source.letterCounts, from * LETTERS.length,
+                             letterCounts, row * LETTERS.length, LETTERS.length);
+        }
+
+        totalGrades = source.totalGrades;
+        overallMean = totalGrades == 0 ? Double.NaN : source.overallMean;
+        overallDeviation = totalGrades == 0 ? Double.NaN : Math.sqrt(source.overallSquares / totalGrades);
+        overallLetterCounts = source.overallLetterCounts.clone();
+    }
+
+    /**
+     * Gets the letter grade for a numeric grade
+     * @param grade The grade (0.0 to 100.0)
+     * @return The position of the letter in LETTERS
+     */
+    public static int letterOf(double grade) {
+        for (int l = 0; l < LETTER_MINIMUMS.length - 1; l++) {
+            if (grade >= LETTER_MINIMUMS[l]) {
+                return l;
+            }
+        }
+        return LETTER_MINIMUMS.length - 1;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static double percentileOf(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Gets the number of courses in the report
+     * @return The row count
+     */
+    public int getCourseCount() {
+        return rows;
+    }
+
+    /**
+     * Finds a course's row
+     * @param courseCode The course code
+     * @return The row, or -1 if the course is not in the report
+     */
+    public int indexOf(String courseCode) {
+        for (int row = 0; row < rows; row++) {
+            if (courseCodes[row].equals(courseCode)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    public String getCourseCode(int row) {
+        return courseCodes[row];
+    }
+
+    /**
+     * Gets the number of grades recorded for a course
+     * @param row The course's row
+     * @return The grade count
+     */
+    public int getGradeCount(int row) {
+        return counts[row];
+    }
+
+    /**
+     * Gets a course's average grade
+     * @param row The course's row
+     * @return The mean, or NaN if the course has no grades
+     */
+    public double getMean(int row) {
+        return means[row];
+    }
+
+    /**
+     * Gets a course's middle grade
+     * @param row The course's row
+     * @return The median, or NaN if the course has no grades
+     */
+    public double getMedian(int row) {
+        return medians[row];
+    }
+
+    /**
+     * Gets how widely a course's grades are spread around the mean
+     * @param row The course's row
+     * @return The population standard deviation, or NaN if the course has no grades
+     */
+    public double getStandardDeviation(int row) {
+        return deviations[row];
+    }
+
+    /**
+     * Gets a course's grades at each of the PERCENTILES
+     * @param row The course's row
+     * @return Copy of the percentile grades, NaN if the course has no grades
+     */
+    public double[] getPercentiles(int row) {
+        int from = row * PERCENTILES.length;
+        return Arrays.copyOfRange(percentiles, from, from + PERCENTILES.length);
+    }
+
+    /**
+     * Gets how many students of a course earned each letter
+     * @param row The course's row
+     * @return Copy of the counts, in the order of LETTERS
+     */
+    public int[] getLetterCounts(int row) {
+        int from = row * LETTERS.length;
+        return Arrays.copyOfRange(letterCounts, from, from + LETTERS.length);
+    }
+
+    /**
+     * Gets the number of grades across all courses
+     * @return The grade count
+     */
+    public long getTotalGrades() {
+        return totalGrades;
+    }
+
+    /**
+     * Gets the average of all grades
+     * @return The mean, or NaN if there are no grades
+     */
+    public double getOverallMean() {
+        return overallMean;
+    }
+
+    /**
+     * Gets the spread of all grades around the overall mean
+     * @return The population standard deviation, or NaN if there are no grades
+     */
+    public double getOverallStandardDeviation() {
+        return overallDeviation;
+    }
+
+    /**
+     * Gets how many grades across all courses earned each letter
+     * @return Copy of the counts, in the order of LETTERS
+     */
+    public long[] getOverallLetterCounts() {
+        return overallLetterCounts.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-10s %6s %7s %7s %7s", "Course", "Grades", "Mean", "Median", "StdDev"));
+        for (double percentile : PERCENTILES) {
+            report.append(String.format(" %6s", "p" + (int) percentile));
+        }
+        for (String letter : LETTERS) {
+            report.append(String.format(" %5s", letter));
+        }
+        report.append("\n");
+        for (int row = 0; row < rows; row++) {
+            report.append(String.format("%-10s %6d %7.1f %7.1f %7.1f",
+                courseCodes[row], counts[row], means[row], medians[row], deviations[row]));
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                report.append(String.format(" %6.1f", percentiles[row * PERCENTILES.length + p]));
+            }
+            for (int l = 0; l < LETTERS.length; l++) {
+                report.append(String.format(" %5d", letterCounts[row * LETTERS.length + l]));
+            }
+            report.append("\n");
+        }
+        report.append(String.format("All grades: %d, mean %.1f, std dev %.1f, letters %s%n",
+            totalGrades, overallMean, overallDeviation, Arrays.toString(overallLetterCounts)));
+        return report.toString();
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GradeLeaderboard ranks students by grade, highest first.
+ * 
+ * Students are kept in an order-statistic treap: a balanced binary search
+ * tree where every node also stores the size of its subtree. That makes
+ * updates, rank lookups and top-N queries O(log n) (plus N for top-N)
+ * instead of sorting every student on each request.
+ * 
+ * Ties are broken by student ID so the order is stable.
+ */
+public class GradeLeaderboard {
+    /**
+     * Treap node holding one student's ranked grade
+     */
+    private static final class Node {
+        final Student student;
+        final String studentId;
+        final double grade;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(Student student, double grade) {
+            this.student = student;
+            this.studentId = student.getStudentId();
+            this.grade = grade;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node root;
+    private final Map<Student, Node> nodes = new HashMap<>();
+
+    /**
+     * Sets or replaces a student's ranked grade
+     * @param student The student to rank
+     * @param grade The grade to rank them by
+     */
+    public synchronized void update(Student student, double grade) {
+        Node existing = nodes.get(student);
+        if (existing != null) {
+            if (existing.grade == grade) {
+                return;
+            }
+            root = delete(root, existing);
+        }
+        Node node = new Node(student, grade);
+        nodes.put(student, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes a student from the leaderboard
+     * @param student The student to remove
+     */
+    public synchronized void remove(Student student) {
+        Node existing = nodes.remove(student);
+        if (existing != null) {
+            root = delete(root, existing);
+        }
+    }
+
+    /**
+     * Gets the number of ranked students
+     * @return The leaderboard size
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Gets the highest-ranked students
+     * @param n The maximum number of students to return
+     * @return Up to n students, best grade first
+     */
+    public synchronized List<Student> top(int n) {
+        List<Student> result = new ArrayList<>(Math.max(0, Math.min(n, size(root))));
+        collectTop(root, n, result);
+        return result;
+    }
+
+    /**
+     * Gets a student's rank
+     * @param student The student to look up
+     * @return The 1-based rank (1 is the best grade), or -1 if not ranked
+     */
+    public synchronized int rankOf(Student student) {
+        Node target = nodes.get(student);
+        if (target == null) {
+            return -1;
+        }
+        int rank = 1;
+        Node current = root;
+        while (current != null) {
+            int cmp = compare(target, current);
+            if (cmp < 0) {
+                current = current.left;
+            } else {
+                rank += size(current.left);
+                if (cmp == 0) {
+                    return rank;
+                }
+                rank++;
+                current = current.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the percentage of ranked students placed below a student
+     * @param student The student to look up
+     * @return The percentile (0-100), or -1 if not ranked
+     */
+    public synchronized double percentileOf(Student student) {
+        int rank = rankOf(student);
+        if (rank < 0) {
+            return -1;
+        }
+        int total = size(root);
+        if (total == 1) {
+            return 100.0;
+        }
+        return 100.0 * (total - rank) / (total - 1);
+    }
+
+    /**
+     * Gets the grade a student is currently ranked by
+     * @param student The student to look up
+     * @return The ranked grade, or -1 if not ranked
+     */
+    public synchronized double gradeOf(Student student) {
+        Node node = nodes.get(student);
+        return node == null ? -1 : node.grade;
+    }
+
+    /**
+     * Orders nodes by grade descending, then student ID, then identity
+     */
+    private static int compare(Node a, Node b) {
+        if (a == b) {
+            return 0;
+        }
+        int cmp = Double.compare(b.grade, a.grade);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = a.studentId.compareTo(b.studentId);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Integer.compare(System.identityHashCode(a.student), System.identityHashCode(b.student));
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void updateSize(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateSize(node);
+        updateSize(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateSize(node);
+        updateSize(right);
+        return right;
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node, root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        updateSize(root);
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        int cmp = compare(node, root);
+        if (cmp < 0) {
+            root.left = delete(root.left, node);
+        } else if (cmp > 0) {
+            root.right = delete(root.right, node);
+        } else {
+            // Merge the children of the removed node
+            return merge(root.left, root.right);
+        }
+        updateSize(root);
+        return root;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            updateSize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        updateSize(right);
+        return right;
+    }
+
+    private static void collectTop(Node node, int n, List<Student> result) {
+        if (node == null || result.size() >= n) {
+            return;
+        }
+        collectTop(node.left, n, result);
+        if (result.size() < n) {
+            result.add(node.student);
+        }
+        collectTop(node.right, n, result);
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * GradeMatrix is the columnar grade store used by each CourseShard.
+ * 
+ * Students are addressed by the dense int position assigned when they are
+ * registered, and courses by their column in the shard's matrix (see
+ * CourseShard.columnOf), which is not the registry-wide course index.
+ * Each course owns one column holding its graded students and their grades
+ * in parallel primitive arrays, so per-course aggregates scan contiguous
+ * memory with no boxing. A small open-addressing table per column finds a
+ * student's slot when a grade is read or overwritten.
+ * 
+ * The matrix is the only copy of the grades. A student's grades across
+ * courses are read back cell by cell for its enrolled courses.
+ * 
+ * Each column is guarded by its own lock, so grading different courses
+ * never contends.
+ */
+public class GradeMatrix {
+    /**
+     * Receives the cells of a column scan
+     */
+    public interface GradeVisitor {
+        void visit(int studentIndex, double grade);
+    }
+
+    /**
+     * One course's grades in contiguous primitive arrays
+     */
+    private static final class Column {
+        int[] students = new int[8];
+        double[] grades = new double[8];
+        int size;
+
+        // Open-addressing table from student index + 1 to slot (0 means empty)
+        int[] tableKeys = new int[16];
+        int[] tableSlots = new int[16];
+
+        synchronized double set(int student, double grade) {
+            int mask = tableKeys.length - 1;
+            int probe = mix(student) & mask;
+            while (tableKeys[probe] != 0) {
+                if (tableKeys[probe] == student + 1) {
+                    int slot = tableSlots[probe];
+                    double previous = grades[slot];
+                    grades[slot] = grade;
+                    return previous;
+                }
+                probe = (probe + 1) & mask;
+            }
+
+            // New cell: append to the column and index its slot
+            if (size == students.length) {
+                students = java.util.Arrays.copyOf(students, size * 2);
+                grades = java.util.Arrays.copyOf(grades, size * 2);
+            }
+            students[size] = student;
+            grades[size] = grade;
+            tableKeys[probe] = student + 1;
+            tableSlots[probe] = size;
+            size++;
+            if (size * 2 > tableKeys.length) {
+                rehash();
+            }
+            return Double.NaN;
+        }
+
+        synchronized double get(int student) {
+            int mask = tableKeys.length - 1;
+            int probe = mix(student) & mask;
+            while (tableKeys[probe] != 0) {
+                if (tableKeys[probe] == student + 1) {
+                    return grades[tableSlots[probe]];
+                }
+                probe = (probe + 1) & mask;
+            }
+            return Double.NaN;
+        }
+
+        private void rehash() {
+            int[] keys = new int[tableKeys.length * 2];
+            int[] slots = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int slot = 0; slot < size; slot++) {
+                int probe = mix(students[slot]) & mask;
+                while (keys[probe] != 0) {
+                    probe = (probe + 1) & mask;
+                }
+                keys[probe] = students[slot] + 1;
+                slots[probe] = slot;
+            }
+            tableKeys = keys;
+            tableSlots = slots;
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private final AppendOnlyList<Column> columns = new AppendOnlyList<>();
+
+    /**
+     * Adds an empty column for a course newly added to the shard
+     * @return The index of the new column, matching the course's position
+     *         in the shard
+     */
+    public int addColumn() {
+        return columns.append(new Column());
+    }
+
+    /**
+     * Gets the number of columns (courses in the shard)
+     * @return The column count
+     */
+    public int columnCount() {
+        return columns.size();
+    }
+
+    /**
+     * Sets a grade, replacing any previous grade for the same cell
+     * @param studentIndex The student's dense index
+     * @param column The course's column
+     * @param grade The grade to store
+     * @return The grade that was replaced, or NaN if the cell was empty
+     */
+    public double set(int studentIndex, int column, double grade) {
+        return columns.get(column).set(studentIndex, grade);
+    }
+
+    /**
+     * Gets a single grade
+     * @param studentIndex The student's dense index
+     * @param column The course's column
+     * @return The grade, or NaN if the cell is empty
+     */
+    public double get(int studentIndex, int column) {
+        return columns.get(column).get(studentIndex);
+    }
+
+    /**
+     * Gets the number of graded students in a course
+     * @param column The course's column
+     * @return The number of grades in the column
+     */
+    public int columnSize(int column) {
+        Column cells = columns.get(column);
+        synchronized (cells) {
+            return cells.size;
+        }
+    }
+
+    /**
+     * Copies a course's grades into one contiguous array
+     * @param column The course's column
+     * @return The grades of the column, in grading order
+     */
+    public double[] columnGrades(int column) {
+        Column cells = columns.get(column);
+        synchronized (cells) {
+            return java.util.Arrays.copyOf(cells.grades, cells.size);
+        }
+    }
+
+    /**
+     * Visits every cell of a column while holding the column's lock
+     * @param column The course's column
+     * @param visitor Receives each student index and grade
+     */
+    public void forEachInColumn(int column, GradeVisitor visitor) {
+        Column cells = columns.get(column);
+        synchronized (cells) {
+            for (int slot = 0; slot < cells.size; slot++) {
+                visitor.visit(cells.students[slot], cells.grades[slot]);
+            }
+        }
+    }
+
+    /**
+     * Gets the total number of grades stored
+     * @return The number of non-empty cells
+     */
+    public long size() {
+        long total = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            total += columnSize(i);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HandleTable maps CodeDictionary handles to values.
+ *
+ * Handles are dense, so the table is an array indexed by handle, split
+ * into fixed-size chunks that are created on first use. Reads take no
+ * lock and never hash; only creating a chunk is serialized.
+ *
+ * @param <V> The value type
+ */
+class HandleTable<V> {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile AtomicReferenceArray<V>[] chunks = newChunks(4);
+
+    /**
+     * Gets the value stored under a handle
+     * @param handle The handle
+     * @return The value, or null if none is stored or the handle is negative
+     */
+    V get(int handle) {
+        if (handle < 0) {
+            return null;
+        }
+        AtomicReferenceArray<V>[] current = chunks;
+        int chunk = handle >>> CHUNK_SHIFT;
+        if (chunk >= current.length || current[chunk] == null) {
+            return null;
+        }
+        return current[chunk].get(handle & CHUNK_MASK);
+    }
+
+    /**
+     * Stores a value unless the handle already has one
+     * @param handle The handle, not negative
+     * @param value The value to store
+     * @return The value already stored, or null if this one was stored
+     */
+    V putIfAbsent(int handle, V value) {
+        AtomicReferenceArray<V> chunk = chunkFor(handle);
+        int slot = handle & CHUNK_MASK;
+        return chunk.compareAndSet(slot, null, value) ? null : chunk.get(slot);
+    }
+
+    private AtomicReferenceArray<V> chunkFor(int handle) {
+        int chunk = handle >>> CHUNK_SHIFT;
+        AtomicReferenceArray<V>[] current = chunks;
+        if (chunk < current.length && current[chunk] != null) {
+            return current[chunk];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (chunk >= current.length) {
+                AtomicReferenceArray<V>[] grown = newChunks(Math.max(current.length * 2, chunk + 1));
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[chunk] == null) {
+                current[chunk] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            }
+            chunks = current;
+            return current[chunk];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> AtomicReferenceArray<V>[] newChunks(int count) {
+        return (AtomicReferenceArray<V>[]) new AtomicReferenceArray<?>[count];
+    }
+}
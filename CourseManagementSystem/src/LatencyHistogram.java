@@ -0,0 +1,155 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram records durations in nanoseconds into log-linear
+ * buckets, in the style of HdrHistogram.
+ *
+ * Every power of two is split into 32 equal buckets, so any recorded
+ * value is known to within about 3%. Values from 0 to about 137 seconds
+ * fit in a fixed array of 1056 counters; longer values count in the top
+ * bucket. Recording is a single atomic increment, with no locks and no
+ * allocation, so it can be called on every operation. Like HdrHistogram,
+ * the mean and maximum are derived from the buckets, to the same precision.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Immutable copy of a histogram at one point in time
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final double mean;
+        private final long max;
+
+        private Snapshot(long[] counts) {
+            long total = 0;
+            double sum = 0;
+            long highest = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    total += counts[i];
+                    sum += counts[i] * ((lowestValueIn(i) + highestValueIn(i)) / 2.0);
+                    highest = highestValueIn(i);
+                }
+            }
+            this.counts = counts;
+            this.count = total;
+            this.mean = total == 0 ? 0.0 : sum / total;
+            this.max = highest;
+        }
+
+        /**
+         * Gets the number of recorded values
+         * @return The count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the average recorded value
+         * @return The mean in nanoseconds, or 0 if nothing was recorded
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * Gets the largest recorded value
+         * @return The upper bound of the highest used bucket in nanoseconds
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Gets the value below which a given share of recorded values fall
+         * @param percentile The percentile (0-100)
+         * @return The upper bound of the matching bucket in nanoseconds,
+         *         or 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueIn(i);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Records one duration
+     * @param nanos The duration in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * Copies the current counters. Values recorded while copying may or
+     * may not be included.
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    /**
+     * Copies the current counters and starts counting from zero again
+     * @return The snapshot of everything recorded before the reset
+     */
+    public Snapshot snapshotAndReset() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.getAndSet(i, 0);
+        }
+        return new Snapshot(copy);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+        if (exponent == MAX_EXPONENT && value >>> MAX_EXPONENT > 1) {
+            return BUCKETS - 1; // Past the tracked range
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long lowestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,121 @@
+import java.time.DayOfWeek;
+
+/**
+ * MeetingSlot is one weekly meeting time of a course, for example
+ * Monday 09:00-10:30.
+ * 
+ * Times are stored as minutes since midnight. For overlap checks a slot
+ * is placed on a single weekly timeline (minutes since Monday 00:00), so
+ * each slot is a simple [start, end) interval.
+ */
+public class MeetingSlot {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final DayOfWeek day;
+    private final int startMinute;
+    private final int endMinute;
+
+    /**
+     * Constructor to create a meeting slot
+     * @param day The day of the week
+     * @param startMinute Start time in minutes since midnight
+     * @param endMinute End time in minutes since midnight (exclusive)
+     * @throws IllegalArgumentException if the times are out of range or empty
+     */
+    public MeetingSlot(DayOfWeek day, int startMinute, int endMinute) {
+        if (day == null) {
+            throw new IllegalArgumentException("Day cannot be null");
+        }
+        if (startMinute < 0 || endMinute > MINUTES_PER_DAY || startMinute >= endMinute) {
+            throw new IllegalArgumentException("Invalid meeting time: " + startMinute + "-" + endMinute);
+        }
+        this.day = day;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    /**
+     * Creates a meeting slot from "HH:MM" times
+     * @param day The day of the week
+     * @param start Start time, e.g. "09:00"
+     * @param end End time, e.g. "10:30"
+     * @return The meeting slot
+     * @throws IllegalArgumentException if a time is malformed
+     */
+    public static MeetingSlot of(DayOfWeek day, String start, String end) {
+        return new MeetingSlot(day, parseTime(start), parseTime(end));
+    }
+
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    /**
+     * Gets the start on the weekly timeline
+     * @return Minutes since Monday 00:00
+     */
+    public int getWeekStart() {
+        return (day.getValue() - 1) * MINUTES_PER_DAY + startMinute;
+    }
+
+    /**
+     * Gets the end on the weekly timeline (exclusive)
+     * @return Minutes since Monday 00:00
+     */
+    public int getWeekEnd() {
+        return (day.getValue() - 1) * MINUTES_PER_DAY + endMinute;
+    }
+
+    /**
+     * Checks whether two slots overlap
+     * @param other The other slot
+     * @return true if the slots share any minute
+     */
+    public boolean overlaps(MeetingSlot other) {
+        return getWeekStart() < other.getWeekEnd() && other.getWeekStart() < getWeekEnd();
+    }
+
+    private static int parseTime(String time) {
+        String[] parts = time == null ? new String[0] : time.trim().split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Time must be HH:MM: " + time);
+        }
+        try {
+            int hours = Integer.parseInt(parts[0]);
+            int minutes = Integer.parseInt(parts[1]);
+            if (hours < 0 || hours > 24 || minutes < 0 || minutes > 59) {
+                throw new IllegalArgumentException("Time out of range: " + time);
+            }
+            return hours * 60 + minutes;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Time must be HH:MM: " + time);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %02d:%02d-%02d:%02d", day, startMinute / 60, startMinute % 60,
+            endMinute / 60, endMinute % 60);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        MeetingSlot slot = (MeetingSlot) obj;
+        return day == slot.day && startMinute == slot.startMinute && endMinute == slot.endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return (day.hashCode() * 31 + startMinute) * 31 + endMinute;
+    }
+}
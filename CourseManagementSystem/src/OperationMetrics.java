@@ -0,0 +1,337 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * OperationMetrics keeps a latency histogram, a call count and an error
+ * count for each named operation.
+ *
+ * Callers wrap a call in its Operation's time() or run(), or time it
+ * themselves and pass the start to record(). The lambda passed to time()
+ * is allocated on every call when it captures arguments, so hot paths
+ * take the start themselves and call record() in a finally block. Either
+ * way a call costs two System.nanoTime() calls plus a few atomic adds.
+ *
+ * Snapshots can be taken at any time; snapshotAndReset() also starts a
+ * new measuring interval, which is what the periodic exporter uses so
+ * each report covers only its own interval.
+ */
+public class OperationMetrics {
+    /**
+     * A timed call that returns a result
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * A timed call that returns nothing
+     */
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Counters for one operation
+     */
+    public static final class Operation {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Records one call that started at a System.nanoTime() reading
+         * @param startNanos The System.nanoTime() value taken before the call
+         * @param succeeded false if the call failed or was rejected
+         */
+        public void record(long startNanos, boolean succeeded) {
+            latency.record(System.nanoTime() - startNanos);
+            if (!succeeded) {
+                errors.increment();
+            }
+        }
+
+        /**
+         * Runs and records a call; it counts as an error if it throws or
+         * its result fails the check
+         * @param call The call to time
+         * @param succeeded Tells from the result whether the call succeeded
+         * @return The call's result
+         * @throws E whatever the call throws
+         */
+        public <T, E extends Exception> T time(Call<T, E> call, Predicate<? super T> succeeded) throws E {
+            long start = System.nanoTime();
+            boolean ok = false;
+            try {
+                T result = call.call();
+                ok = succeeded.test(result);
+                return result;
+            } finally {
+                record(start, ok);
+            }
+        }
+
+        /**
+         * Runs and records a call that counts as an error only if it throws
+         * @param call The call to time
+         * @return The call's result
+         * @throws E whatever the call throws
+         */
+        public <T, E extends Exception> T time(Call<T, E> call) throws E {
+            return time(call, result -> true);
+        }
+
+        /**
+         * Runs and records a call without a result; it counts as an error
+         * only if it throws
+         * @param action The call to time
+         * @throws E whatever the call throws
+         */
+        public <E extends Exception> void run(Action<E> action) throws E {
+            long start = System.nanoTime();
+            boolean ok = false;
+            try {
+                action.run();
+                ok = true;
+            } finally {
+                record(start, ok);
+            }
+        }
+    }
+
+    /**
+     * Immutable figures for one operation over one interval
+     */
+    public static final class OperationSnapshot {
+        private final String name;
+        private final long errors;
+        private final LatencyHistogram.Snapshot latency;
+        private final double seconds;
+
+        private OperationSnapshot(String name, long errors, LatencyHistogram.Snapshot latency, double seconds) {
+            this.name = name;
+            this.errors = errors;
+            this.latency = latency;
+            this.seconds = seconds;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Gets the call rate over the interval
+         * @return Calls per second
+         */
+        public double getThroughput() {
+            return seconds <= 0 ? 0.0 : latency.getCount() / seconds;
+        }
+
+        /**
+         * Gets the latency distribution
+         * @return The latency histogram snapshot, in nanoseconds
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+    }
+
+    /**
+     * Figures for all operations over one interval
+     */
+    public static final class Snapshot {
+        private final List<OperationSnapshot> operations;
+        private final double seconds;
+
+        private Snapshot(List<OperationSnapshot> operations, double seconds) {
+            this.operations = Collections.unmodifiableList(operations);
+            this.seconds = seconds;
+        }
+
+        /**
+         * Gets the operations that were called during the interval
+         * @return The operation figures, by name
+         */
+        public List<OperationSnapshot> getOperations() {
+            return operations;
+        }
+
+        /**
+         * Gets the length of the interval
+         * @return Seconds since the metrics were created or last reset
+         */
+        public double getIntervalSeconds() {
+            return seconds;
+        }
+
+        /**
+         * Formats the figures as one JSON object, latencies in nanoseconds
+         * @return The JSON text
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder();
+            json.append("{\"intervalSeconds\":").append(String.format(Locale.ROOT, "%.3f", seconds)).append(",\"operations\":[");
+            for (int i = 0; i < operations.size(); i++) {
+                OperationSnapshot op = operations.get(i);
+                LatencyHistogram.Snapshot latency = op.getLatency();
+                json.append(i == 0 ? "" : ",")
+                    .append("{\"name\":\"").append(op.getName()).append('"')
+                    .append(",\"calls\":").append(op.getCalls())
+                    .append(",\"errors\":").append(op.getErrors())
+                    .append(",\"opsPerSecond\":").append(String.format(Locale.ROOT, "%.1f", op.getThroughput()))
+                    .append(",\"meanNanos\":").append(String.format(Locale.ROOT, "%.0f", latency.getMean()))
+                    .append(",\"p50Nanos\":").append(latency.getPercentile(50))
+                    .append(",\"p90Nanos\":").append(latency.getPercentile(90))
+                    .append(",\"p99Nanos\":").append(latency.getPercentile(99))
+                    .append(",\"p999Nanos\":").append(latency.getPercentile(99.9))
+                    .append(",\"maxNanos\":").append(latency.getMax())
+                    .append('}');
+            }
+            return json.append("]}").toString();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Operations over %.1f s%n", seconds));
+            text.append(String.format("%-28s %10s %8s %10s %9s %9s %9s %9s%n",
+                "Operation", "Calls", "Errors", "Ops/s", "Mean us", "p50 us", "p99 us", "Max us"));
+            for (OperationSnapshot op : operations) {
+                LatencyHistogram.Snapshot latency = op.getLatency();
+                text.append(String.format("%-28s %10d %8d %10.0f %9.2f %9.2f %9.2f %9.2f%n",
+                    op.getName(), op.getCalls(), op.getErrors(), op.getThroughput(),
+                    latency.getMean() / 1e3, latency.getPercentile(50) / 1e3,
+                    latency.getPercentile(99) / 1e3, latency.getMax() / 1e3));
+            }
+            return text.toString();
+        }
+    }
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final List<Operation> ordered = new CopyOnWriteArrayList<>();
+    private volatile long intervalStart = System.nanoTime();
+    private ScheduledExecutorService exporter;
+
+    /**
+     * Gets the counters for an operation, creating them on first use.
+     * Callers should look an operation up once and keep it.
+     * @param name The operation name
+     * @return The operation's counters
+     */
+    public Operation operation(String name) {
+        Operation existing = operations.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (ordered) {
+            return operations.computeIfAbsent(name, n -> {
+                Operation created = new Operation(n);
+                ordered.add(created);
+                return created;
+            });
+        }
+    }
+
+    /**
+     * Copies the figures of every operation called so far
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        double seconds = (System.nanoTime() - intervalStart) / 1e9;
+        List<OperationSnapshot> result = new ArrayList<>();
+        for (Operation op : ordered) {
+            LatencyHistogram.Snapshot latency = op.latency.snapshot();
+            if (latency.getCount() > 0) {
+                result.add(new OperationSnapshot(op.name, op.errors.sum(), latency, seconds));
+            }
+        }
+        return new Snapshot(result, seconds);
+    }
+
+    /**
+     * Copies the figures of every operation and starts a new interval
+     * @return The snapshot of the interval just ended
+     */
+    public Snapshot snapshotAndReset() {
+        long now = System.nanoTime();
+        double seconds = (now - intervalStart) / 1e9;
+        intervalStart = now;
+        List<OperationSnapshot> result = new ArrayList<>();
+        for (Operation op : ordered) {
+            LatencyHistogram.Snapshot latency = op.latency.snapshotAndReset();
+            long errors = op.errors.sumThenReset();
+            if (latency.getCount() > 0) {
+                result.add(new OperationSnapshot(op.name, errors, latency, seconds));
+            }
+        }
+        return new Snapshot(result, seconds);
+    }
+
+    /**
+     * Clears all counters and starts a new interval
+     */
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    /**
+     * Prints a snapshot of each interval on a background thread
+     * @param out Where to print
+     * @param periodSeconds Seconds between reports
+     * @param json true for one JSON object per line, false for a text table
+     * @return false if an exporter is already running or the period is invalid
+     */
+    public synchronized boolean startExporter(PrintStream out, long periodSeconds, boolean json) {
+        if (exporter != null || out == null || periodSeconds <= 0) {
+            return false;
+        }
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "operation-metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            Snapshot snapshot = snapshotAndReset();
+            out.println(json ? snapshot.toJson() : snapshot.toString());
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return true;
+    }
+
+    /**
+     * Stops the periodic exporter, if running
+     */
+    public synchronized void stopExporter() {
+        if (exporter != null) {
+            exporter.shutdownNow();
+            exporter = null;
+        }
+    }
+}
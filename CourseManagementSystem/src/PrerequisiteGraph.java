@@ -0,0 +1,149 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * PrerequisiteGraph stores which courses must be completed before others,
+ * as a directed acyclic graph over dense course indexes.
+ *
+ * Besides each course's direct prerequisites, the graph keeps its
+ * transitive closure: for every course, a bitmap of all courses it depends
+ * on, directly or indirectly, and a bitmap of all courses that depend on
+ * it. An eligibility check is then a single bitmap subset test, and a
+ * cycle check is a single membership test.
+ *
+ * The closure is updated incrementally when an edge is added: the new
+ * prerequisite and everything it depends on are added to the course and
+ * everything depending on the course. Edges are added rarely, so writers
+ * are serialized; bitmaps are replaced rather than modified, so readers
+ * never lock.
+ */
+public class PrerequisiteGraph {
+    private static final CompactBitmap EMPTY = new CompactBitmap();
+
+    /**
+     * Closure bitmaps of one course. Each field is replaced, never modified.
+     */
+    private static final class Node {
+        volatile CompactBitmap direct = EMPTY;
+        volatile CompactBitmap ancestors = EMPTY;
+        volatile CompactBitmap descendants = EMPTY;
+    }
+
+    private final Map<Integer, Node> nodes = new ConcurrentHashMap<>();
+    private int edgeCount;
+
+    /**
+     * Adds an edge: course requires prerequisite
+     * @param course The dependent course's index
+     * @param prerequisite The required course's index
+     * @return true if added, false if already present or it would create a cycle
+     */
+    public synchronized boolean addPrerequisite(int course, int prerequisite) {
+        if (!canAddPrerequisite(course, prerequisite)) {
+            return false;
+        }
+        Node dependent = node(course);
+
+        // Everything the prerequisite brings along
+        CompactBitmap required = node(prerequisite).ancestors.copy();
+        required.add(prerequisite);
+
+        // Everything that now needs it
+        CompactBitmap affected = dependent.descendants.copy();
+        affected.add(course);
+
+        affected.forEach(index -> {
+            Node target = node(index);
+            target.ancestors = CompactBitmap.or(target.ancestors, required);
+        });
+        required.forEach(index -> {
+            Node source = node(index);
+            source.descendants = CompactBitmap.or(source.descendants, affected);
+        });
+
+        CompactBitmap direct = dependent.direct.copy();
+        direct.add(prerequisite);
+        dependent.direct = direct;
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Checks whether addPrerequisite would add an edge
+     * @param course The dependent course's index
+     * @param prerequisite The required course's index
+     * @return false if already present or it would create a cycle
+     */
+    public synchronized boolean canAddPrerequisite(int course, int prerequisite) {
+        if (course == prerequisite || getAllPrerequisites(prerequisite).contains(course)) {
+            return false; // The prerequisite already depends on the course
+        }
+        Node existing = nodes.get(course);
+        return existing == null || !existing.direct.contains(prerequisite);
+    }
+
+    /**
+     * Gets a course's direct prerequisites
+     * @param course The course index
+     * @return The prerequisite indexes; must not be modified
+     */
+    public CompactBitmap getDirectPrerequisites(int course) {
+        Node node = nodes.get(course);
+        return node == null ? EMPTY : node.direct;
+    }
+
+    /**
+     * Gets every course a course depends on, directly or indirectly
+     * @param course The course index
+     * @return The prerequisite indexes; must not be modified
+     */
+    public CompactBitmap getAllPrerequisites(int course) {
+        Node node = nodes.get(course);
+        return node == null ? EMPTY : node.ancestors;
+    }
+
+    /**
+     * Gets every course that depends on a course, directly or indirectly
+     * @param course The course index
+     * @return The dependent course indexes; must not be modified
+     */
+    public CompactBitmap getAllDependents(int course) {
+        Node node = nodes.get(course);
+        return node == null ? EMPTY : node.descendants;
+    }
+
+    /**
+     * Checks whether a set of completed courses covers all of a course's
+     * prerequisites, direct and indirect
+     * @param course The course index
+     * @param completed The completed course indexes
+     * @return true if the course may be taken
+     */
+    public boolean isSatisfiedBy(int course, CompactBitmap completed) {
+        return getAllPrerequisites(course).isSubsetOf(completed);
+    }
+
+    /**
+     * Gets the number of direct prerequisite edges
+     * @return The edge count
+     */
+    public synchronized int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Runs an action for every direct edge as (course, prerequisite)
+     * @param action The action to run
+     */
+    public void forEachEdge(BiConsumer<Integer, Integer> action) {
+        for (Map.Entry<Integer, Node> entry : nodes.entrySet()) {
+            int course = entry.getKey();
+            entry.getValue().direct.forEach(prerequisite -> action.accept(course, prerequisite));
+        }
+    }
+
+    private Node node(int course) {
+        return nodes.computeIfAbsent(course, c -> new Node());
+    }
+}
@@ -1,7 +1,15 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjDoubleConsumer;
 
 /**
  * Student class represents a university student with personal information,
@@ -9,13 +17,72 @@ import java.util.Map;
  * 
  * This class demonstrates encapsulation by using private instance variables
  * and providing public getter/setter methods for controlled access.
+ * 
+ * Methods touching the course list or grades synchronize on the student,
+ * so concurrent enrollments for the same student stay consistent.
+ * 
+ * Enrolled courses are kept as one immutable row. Every change swaps in
+ * a new row, so readers and the read-only views never need a lock and
+ * never see a half-applied change. Grades are not stored here: they live
+ * only in the owning registry's grade columns and are read from there.
  */
 public class Student {
+    /**
+     * Immutable row of enrolled courses, plus a bitmap of the enrolled
+     * courses' dense indexes for O(1) membership
+     */
+    private static final class CourseRow {
+        static final CourseRow EMPTY = new CourseRow(new Course[0], new CompactBitmap());
+
+        final Course[] courses;
+        final CompactBitmap courseSet;
+
+        CourseRow(Course[] courses, CompactBitmap courseSet) {
+            this.courses = courses;
+            this.courseSet = courseSet;
+        }
+
+        boolean contains(Course course) {
+            int courseIndex = course.getCourseIndex();
+            if (courseIndex >= 0) {
+                return courseSet.contains(courseIndex);
+            }
+            return indexOf(course) >= 0; // Course not registered; scan
+        }
+
+        int indexOf(Object course) {
+            for (int i = 0; i < courses.length; i++) {
+                if (courses[i] == course || courses[i].equals(course)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
     // Private instance variables for encapsulation
     private String name;
     private String studentId;
-    private List<Course> enrolledCourses;
-    private Map<Course, Double> courseGrades;
+
+    // Handle of the ID in its registry's dictionary, -1 until registered
+    private volatile int idHandle = -1;
+    private volatile CourseRow row = CourseRow.EMPTY;
+
+    // Running totals so the overall grade never rescans the grades
+    private double gradeSum;
+    private int gradeCount;
+
+    // Dense position of this student in its registry, or -1 if not registered
+    private volatile int studentIndex = -1;
+
+    // Registry this student belongs to, or null if not yet claimed
+    private volatile CourseRegistry registry;
+
+    // Booked meeting times of enrolled courses, guarded by this student
+    private final TimetableIndex timetable = new TimetableIndex();
+
+    // Course count histogram bucket this student is counted in, or -1
+    private int statisticsBucket = -1;
 
     /**
      * Constructor to create a new Student object
@@ -24,9 +91,7 @@ public class Student {
      */
     public Student(String name, String studentId) {
         this.name = name;
-        this.studentId = studentId;
-        this.enrolledCourses = new ArrayList<>();
-        this.courseGrades = new HashMap<>();
+        setStudentId(studentId);
     }
 
     // Getter and Setter methods for accessing and updating student information
@@ -56,19 +121,40 @@ public class Student {
     }
 
     /**
-     * Sets the student's ID
+     * Sets the student's ID. The registry finds students by ID, so the ID
+     * is fixed once a registry has claimed the student.
      * @param studentId The new ID for the student
+     * @throws IllegalStateException if the student belongs to a registry
      */
-    public void setStudentId(String studentId) {
+    public synchronized void setStudentId(String studentId) {
+        if (registry != null) {
+            throw new IllegalStateException("Cannot change the ID of registered student " + this.studentId);
+        }
         this.studentId = studentId;
     }
 
+    /**
+     * Gets the handle of the student's ID in its registry's dictionary
+     * @return The handle, or -1 if the student is not registered
+     */
+    public int getIdHandle() {
+        return idHandle;
+    }
+
+    /**
+     * Sets the handle assigned by the registry
+     * @param idHandle The ID's handle
+     */
+    void setIdHandle(int idHandle) {
+        this.idHandle = idHandle;
+    }
+
     /**
      * Gets the list of courses the student is enrolled in
      * @return List of enrolled courses
      */
     public List<Course> getEnrolledCourses() {
-        return new ArrayList<>(enrolledCourses);
+        return new ArrayList<>(Arrays.asList(row.courses));
     }
 
     /**
@@ -76,7 +162,200 @@ public class Student {
      * @return Map of courses and their corresponding grades
      */
     public Map<Course, Double> getCourseGrades() {
-        return new HashMap<>(courseGrades);
+        return new HashMap<>(getCourseGradesView());
+    }
+
+    /**
+     * Gets a read-only view of the enrolled courses, without copying.
+     * The view reflects the courses at the time of the call; later
+     * enrollments and drops swap in a new row and are not seen by it.
+     * @return Unmodifiable view of enrolled courses
+     */
+    public List<Course> getEnrolledCoursesView() {
+        return Collections.unmodifiableList(Arrays.asList(row.courses));
+    }
+
+    /**
+     * Gets a live read-only view of the student's grades. Nothing is
+     * copied: every lookup reads the current enrolled courses and the
+     * registry's grade matrix, and an iterator walks the row that was
+     * current when it started. Values are boxed as they are read, so
+     * loops should use forEachGrade instead.
+     * @return Unmodifiable view of graded courses and their grades
+     */
+    public Map<Course, Double> getCourseGradesView() {
+        return new AbstractMap<Course, Double>() {
+            @Override
+            public Double get(Object course) {
+                if (!(course instanceof Course) || !row.contains((Course) course)) {
+                    return null;
+                }
+                double grade = gradeOf((Course) course);
+                return Double.isNaN(grade) ? null : grade;
+            }
+
+            @Override
+            public boolean containsKey(Object course) {
+                return get(course) != null;
+            }
+
+            @Override
+            public Set<Map.Entry<Course, Double>> entrySet() {
+                return new AbstractSet<Map.Entry<Course, Double>>() {
+                    @Override
+                    public int size() {
+                        int graded = 0;
+                        for (Course course : row.courses) {
+                            if (!Double.isNaN(gradeOf(course))) {
+                                graded++;
+                            }
+                        }
+                        return graded;
+                    }
+
+                    @Override
+                    public Iterator<Map.Entry<Course, Double>> iterator() {
+                        final Course[] courses = row.courses;
+                        return new Iterator<Map.Entry<Course, Double>>() {
+                            private int next = advance(0);
+                            private double nextGrade;
+
+                            private int advance(int from) {
+                                while (from < courses.length) {
+                                    nextGrade = gradeOf(courses[from]);
+                                    if (!Double.isNaN(nextGrade)) {
+                                        break;
+                                    }
+                                    from++;
+                                }
+                                return from;
+                            }
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < courses.length;
+                            }
+
+                            @Override
+                            public Map.Entry<Course, Double> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                Map.Entry<Course, Double> entry =
+                                    new AbstractMap.SimpleImmutableEntry<>(courses[next], nextGrade);
+                                next = advance(next + 1);
+                                return entry;
+                            }
+                        };
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Passes each graded course and its grade to an action, reading the
+     * grade matrix directly so no grade is boxed
+     * @param action Receives each graded course with its grade
+     */
+    public void forEachGrade(ObjDoubleConsumer<Course> action) {
+        for (Course course : row.courses) {
+            double grade = gradeOf(course);
+            if (!Double.isNaN(grade)) {
+                action.accept(course, grade);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the student is enrolled in a course
+     * @param course The course to check
+     * @return true if enrolled
+     */
+    public boolean isEnrolledIn(Course course) {
+        return course != null && row.contains(course);
+    }
+
+    /**
+     * Gets the number of courses the student is enrolled in
+     * @return The enrolled course count
+     */
+    public int getEnrolledCourseCount() {
+        return row.courses.length;
+    }
+
+    /**
+     * Gets the dense indexes of the courses graded at or above a pass mark
+     * @param passMark The lowest passing grade
+     * @return A new bitmap of completed course indexes
+     */
+    CompactBitmap getCompletedCourseSet(double passMark) {
+        CourseRow current = row;
+        CompactBitmap completed = new CompactBitmap();
+        for (int i = 0; i < current.courses.length; i++) {
+            int courseIndex = current.courses[i].getCourseIndex();
+            if (courseIndex >= 0 && gradeOf(current.courses[i]) >= passMark) {
+                completed.add(courseIndex); // NaN (ungraded) never compares as passing
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Gets the dense position assigned when the student was registered
+     * @return The student index, or -1 if not registered
+     */
+    int getStudentIndex() {
+        return studentIndex;
+    }
+
+    /**
+     * Sets the dense position assigned by the registry
+     * @param studentIndex The student index
+     */
+    void setStudentIndex(int studentIndex) {
+        this.studentIndex = studentIndex;
+    }
+
+    /**
+     * Gets the registry this student belongs to
+     * @return The owning registry, or null if not yet claimed
+     */
+    CourseRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Sets the registry this student belongs to
+     * @param registry The owning registry
+     */
+    void setRegistry(CourseRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the course count histogram bucket this student is counted in
+     * @return The bucket, or -1 if not yet counted
+     */
+    int getStatisticsBucket() {
+        return statisticsBucket;
+    }
+
+    /**
+     * Sets the course count histogram bucket this student is counted in
+     * @param statisticsBucket The bucket
+     */
+    void setStatisticsBucket(int statisticsBucket) {
+        this.statisticsBucket = statisticsBucket;
+    }
+
+    /**
+     * Finds an enrolled course whose meeting times overlap a course
+     * @param course The course to check
+     * @return The clashing enrolled course, or null if there is no conflict
+     */
+    public synchronized Course findTimetableConflict(Course course) {
+        return course == null ? null : timetable.findConflict(course);
     }
 
     /**
@@ -84,39 +363,106 @@ public class Student {
      * Demonstrates instance method for manipulating object state
      * @param course The course to enroll in
      * @return true if enrollment is successful, false if already enrolled
+     *         or the course clashes with the student's timetable
      */
-    public boolean enrollInCourse(Course course) {
+    public synchronized boolean enrollInCourse(Course course) {
         if (course == null) {
             return false;
         }
         
-        if (enrolledCourses.contains(course)) {
+        CourseRow current = row;
+        if (current.contains(course)) {
             return false; // Already enrolled
         }
+
+        if (timetable.findConflict(course) != null) {
+            return false; // Meeting times clash with an enrolled course
+        }
+        timetable.book(course);
         
-        enrolledCourses.add(course);
-        Course.incrementTotalEnrolledStudents();
+        int size = current.courses.length;
+        Course[] courses = Arrays.copyOf(current.courses, size + 1);
+        courses[size] = course;
+        CompactBitmap courseSet = current.courseSet;
+        if (course.getCourseIndex() >= 0) {
+            courseSet = courseSet.copy();
+            courseSet.add(course.getCourseIndex());
+        }
+        row = new CourseRow(courses, courseSet);
+        return true;
+    }
+
+    /**
+     * Removes the student from a course.
+     * A course that already has a grade cannot be dropped, so grade
+     * totals never need to be unwound.
+     * @param course The course to drop
+     * @return true if dropped, false if not enrolled or already graded
+     */
+    public synchronized boolean dropCourse(Course course) {
+        if (course == null) {
+            return false;
+        }
+
+        CourseRow current = row;
+        int index = current.indexOf(course);
+        if (index < 0 || !Double.isNaN(gradeOf(course))) {
+            return false;
+        }
+
+        int size = current.courses.length;
+        Course[] courses = new Course[size - 1];
+        System.arraycopy(current.courses, 0, courses, 0, index);
+        System.arraycopy(current.courses, index + 1, courses, index, size - index - 1);
+        CompactBitmap courseSet = current.courseSet;
+        if (course.getCourseIndex() >= 0) {
+            courseSet = courseSet.copy();
+            courseSet.remove(course.getCourseIndex());
+        }
+        row = new CourseRow(courses, courseSet);
+        timetable.release(course);
         return true;
     }
 
     /**
      * Assigns a grade to the student for a specific course
      * Demonstrates instance method for manipulating object state
+     * The grade is stored by the registry the student belongs to, so a
+     * student that has not been registered cannot be graded.
      * @param course The course for which to assign the grade
      * @param grade The grade to assign (0.0 to 100.0)
      * @return true if grade assignment is successful, false otherwise
      */
     public boolean assignGrade(Course course, double grade) {
-        if (course == null || grade < 0 || grade > 100) {
-            return false;
-        }
-        
-        if (!enrolledCourses.contains(course)) {
-            return false; // Student not enrolled in this course
+        CourseRegistry owner = registry;
+        return owner != null && owner.assignGrade(this, course, grade);
+    }
+
+    /**
+     * Updates the running totals after the registry has stored a grade.
+     * Called with the student's lock held.
+     * @param course The graded course
+     * @param previous The grade that was replaced, or NaN if newly graded
+     * @param grade The new grade
+     */
+    synchronized void recordGrade(Course course, double previous, double grade) {
+        if (Double.isNaN(previous)) {
+            gradeSum += grade;
+            gradeCount++;
+        } else {
+            gradeSum += grade - previous;
         }
-        
-        courseGrades.put(course, grade);
-        return true;
+        course.recordGrade(previous, grade);
+    }
+
+    /**
+     * Reads the grade for a course from the owning registry
+     * @param course The course
+     * @return The grade, or NaN if not graded or the student is not registered
+     */
+    private double gradeOf(Course course) {
+        CourseRegistry owner = registry;
+        return owner == null ? Double.NaN : owner.gradeOf(this, course);
     }
 
     /**
@@ -125,29 +471,29 @@ public class Student {
      * @return The grade, or -1 if no grade assigned
      */
     public double getGradeForCourse(Course course) {
-        return courseGrades.getOrDefault(course, -1.0);
+        if (course == null || !row.contains(course)) {
+            return -1.0;
+        }
+        double grade = gradeOf(course);
+        return Double.isNaN(grade) ? -1.0 : grade;
     }
 
     /**
      * Calculates the overall average grade for the student
+     * The sum and count are maintained by assignGrade, so this is O(1)
      * @return The average grade, or 0.0 if no grades assigned
      */
-    public double calculateOverallGrade() {
-        if (courseGrades.isEmpty()) {
+    public synchronized double calculateOverallGrade() {
+        if (gradeCount == 0) {
             return 0.0;
         }
         
-        double sum = 0.0;
-        for (double grade : courseGrades.values()) {
-            sum += grade;
-        }
-        
-        return sum / courseGrades.size();
+        return gradeSum / gradeCount;
     }
 
     @Override
     public String toString() {
         return "Student{ID='" + studentId + "', Name='" + name + 
-               "', Enrolled Courses=" + enrolledCourses.size() + "}";
+               "', Enrolled Courses=" + row.courses.length + "}";
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * TimetableConflict reports two courses of one student whose meeting
+ * times overlap.
+ */
+public class TimetableConflict {
+    private final Student student;
+    private final Course first;
+    private final Course second;
+    private final MeetingSlot firstSlot;
+    private final MeetingSlot secondSlot;
+
+    /**
+     * Constructor to create a conflict report
+     */
+    public TimetableConflict(Student student, Course first, MeetingSlot firstSlot,
+                             Course second, MeetingSlot secondSlot) {
+        this.student = student;
+        this.first = first;
+        this.firstSlot = firstSlot;
+        this.second = second;
+        this.secondSlot = secondSlot;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Course getFirstCourse() {
+        return first;
+    }
+
+    public Course getSecondCourse() {
+        return second;
+    }
+
+    /**
+     * A meeting slot together with the course it belongs to
+     */
+    private static final class ScheduledSlot {
+        final MeetingSlot slot;
+        final Course course;
+
+        ScheduledSlot(MeetingSlot slot, Course course) {
+            this.slot = slot;
+            this.course = course;
+        }
+    }
+
+    /**
+     * Finds overlapping meeting times in one student's schedule with a
+     * sort-and-sweep over all slots: O(s log s + k) for s slots and k
+     * conflicts instead of comparing every pair of courses.
+     * @param student The student the schedule belongs to
+     * @param schedule The courses to check
+     * @return The conflicts found (empty if none)
+     */
+    static List<TimetableConflict> detect(Student student, List<Course> schedule) {
+        List<ScheduledSlot> slots = new ArrayList<>();
+        for (Course course : schedule) {
+            for (MeetingSlot slot : course.getMeetingSlots()) {
+                slots.add(new ScheduledSlot(slot, course));
+            }
+        }
+        List<TimetableConflict> conflicts = new ArrayList<>();
+        if (slots.size() < 2) {
+            return conflicts;
+        }
+        slots.sort(Comparator.comparingInt(scheduled -> scheduled.slot.getWeekStart()));
+
+        // Slots that have started and not yet ended, earliest end first.
+        // Once the ones ending by the current start are dropped, every slot
+        // left overlaps the current one.
+        PriorityQueue<ScheduledSlot> active =
+            new PriorityQueue<>(Comparator.comparingInt(scheduled -> scheduled.slot.getWeekEnd()));
+        for (ScheduledSlot current : slots) {
+            while (!active.isEmpty() && active.peek().slot.getWeekEnd() <= current.slot.getWeekStart()) {
+                active.poll();
+            }
+            for (ScheduledSlot open : active) {
+                if (open.course != current.course) {
+                    conflicts.add(new TimetableConflict(student, open.course, open.slot,
+                                                        current.course, current.slot));
+                }
+            }
+            active.add(current);
+        }
+        return conflicts;
+    }
+
+    @Override
+    public String toString() {
+        return "Conflict{Student='" + student.getStudentId() + "', " + first.getCourseCode() + " " + firstSlot
+            + " overlaps " + second.getCourseCode() + " " + secondSlot + "}";
+    }
+}
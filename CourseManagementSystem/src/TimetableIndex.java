@@ -0,0 +1,64 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TimetableIndex holds one student's booked meeting times on the weekly
+ * timeline, keyed by start minute.
+ * 
+ * Enrollment never lets booked intervals overlap, so the index is a set of
+ * disjoint intervals in a balanced tree. For disjoint intervals, the only
+ * one that can overlap a new [start, end) is the one with the greatest
+ * start below end, so a conflict check is one O(log n) lookup per slot.
+ * 
+ * Not thread-safe; Student guards it with its own lock.
+ */
+public class TimetableIndex {
+    /**
+     * One booked interval and the course that booked it
+     */
+    private static final class Booking {
+        final int end;
+        final Course course;
+
+        Booking(int end, Course course) {
+            this.end = end;
+            this.course = course;
+        }
+    }
+
+    private final TreeMap<Integer, Booking> bookings = new TreeMap<>();
+
+    /**
+     * Finds a booked course that clashes with any of a course's slots
+     * @param course The course to check
+     * @return The clashing course, or null if there is no conflict
+     */
+    public Course findConflict(Course course) {
+        for (MeetingSlot slot : course.getMeetingSlots()) {
+            Map.Entry<Integer, Booking> before = bookings.lowerEntry(slot.getWeekEnd());
+            if (before != null && before.getValue().end > slot.getWeekStart()
+                    && before.getValue().course != course) {
+                return before.getValue().course;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Books all of a course's slots. Callers check findConflict first.
+     * @param course The course to book
+     */
+    public void book(Course course) {
+        for (MeetingSlot slot : course.getMeetingSlots()) {
+            bookings.put(slot.getWeekStart(), new Booking(slot.getWeekEnd(), course));
+        }
+    }
+
+    /**
+     * Frees all slots booked by a course
+     * @param course The course to remove
+     */
+    public void release(Course course) {
+        bookings.values().removeIf(booking -> booking.course == course);
+    }
+}
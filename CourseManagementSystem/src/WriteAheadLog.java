@@ -0,0 +1,344 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog is an append-only binary log split into numbered segment
+ * files (wal-000001.log, wal-000002.log, ...).
+ * 
+ * Each record is framed as [length][payload][CRC32] so a torn write at the
+ * end of a segment is detected and ignored on replay. Appends are buffered
+ * in memory and a single writer thread flushes them with one fsync per
+ * group ("group commit"), so many concurrent callers share each fsync.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread writer;
+
+    // State guarded by lock
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSequence = 0;
+    private long durableSequence = 0;
+    private boolean rotateRequested = false;
+    private long rotationsDone = 0;
+    private boolean closed = false;
+    private IOException failure;
+
+    // Owned by the writer thread after construction
+    private FileChannel channel;
+    private volatile long segment;
+
+    /**
+     * Opens a log that appends to a new segment in the given directory
+     * @param directory The directory holding the segment files
+     * @param segment The number of the segment to start writing
+     * @throws IOException if the segment file cannot be created
+     */
+    public WriteAheadLog(Path directory, long segment) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.segment = segment;
+        this.channel = openSegment(segment);
+        this.writer = new Thread(this::writeLoop, "wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Gets the number of the segment currently being written
+     * @return The current segment number
+     */
+    public long getCurrentSegment() {
+        return segment;
+    }
+
+    /**
+     * Appends a record to the log without waiting for it to reach disk
+     * @param payload The record bytes
+     * @return The sequence number of the record, for use with awaitDurable
+     * @throws IOException if the log has failed or been closed
+     */
+    public long append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        lock.lock();
+        try {
+            checkUsable();
+            writeInt(pending, payload.length);
+            pending.write(payload, 0, payload.length);
+            writeInt(pending, (int) crc.getValue());
+            appendedSequence++;
+            workAvailable.signal();
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a record and everything before it has been fsynced
+     * @param sequence The sequence number returned by append
+     * @throws IOException if the log failed before the record became durable
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (closed) {
+                    throw new IOException("Write-ahead log is closed");
+                }
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes all appended records, closes the current segment and starts
+     * the next one. Records appended after this call returns land in the
+     * new segment.
+     * @return The number of the new segment
+     * @throws IOException if the log has failed or been closed
+     */
+    public long rotate() throws IOException {
+        lock.lock();
+        try {
+            checkUsable();
+            long target = rotationsDone + 1;
+            rotateRequested = true;
+            workAvailable.signal();
+            while (rotationsDone < target) {
+                if (failure != null) {
+                    throw failure;
+                }
+                durable.awaitUninterruptibly();
+            }
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes any pending records and stops the writer thread
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writer thread loop: waits for appended records, writes them as one
+     * group and fsyncs once per group
+     */
+    private void writeLoop() {
+        while (true) {
+            ByteArrayOutputStream group;
+            long groupSequence;
+            boolean rotate;
+            boolean stop;
+
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !rotateRequested && !closed) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                group = pending;
+                groupSequence = appendedSequence;
+                rotate = rotateRequested;
+                stop = closed;
+                if (group.size() > 0) {
+                    pending = new ByteArrayOutputStream(Math.max(32, group.size()));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (group.size() > 0) {
+                    ByteBuffer buffer = ByteBuffer.wrap(group.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                if (rotate) {
+                    channel.close();
+                    channel = openSegment(segment + 1);
+                    segment = segment + 1;
+                }
+                if (stop) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                durableSequence = groupSequence;
+                if (rotate) {
+                    rotateRequested = false;
+                    rotationsDone++;
+                }
+                durable.signalAll();
+                if (stop && pending.size() == 0) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Throws if the log can no longer accept records
+     */
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("Write-ahead log is closed");
+        }
+    }
+
+    /**
+     * Opens a segment file for appending
+     */
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(directory, number),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Builds the path of a segment file
+     * @param directory The log directory
+     * @param number The segment number
+     * @return The segment file path
+     */
+    public static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Lists the segment numbers present in a directory, in ascending order
+     * @param directory The log directory
+     * @return The sorted segment numbers
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segments.add(Long.parseLong(name.substring(
+                            SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a segment file; ignore
+                    }
+                }
+            });
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Reads every intact record of a segment in order. Reading stops at the
+     * first truncated or corrupt record, which marks the end of the log.
+     * @param segmentFile The segment to read
+     * @param consumer Receives each record payload
+     * @return The number of records read
+     * @throws IOException if the file cannot be read
+     */
+    public static long readSegment(Path segmentFile, Consumer<byte[]> consumer) throws IOException {
+        long count = 0;
+        try (InputStream file = Files.newInputStream(segmentFile);
+             DataInputStream in = new DataInputStream(new java.io.BufferedInputStream(file, 1 << 16))) {
+            while (true) {
+                byte[] payload;
+                int storedCrc;
+                try {
+                    int length = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_SIZE) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    storedCrc = in.readInt();
+                } catch (EOFException e) {
+                    break; // Torn record at the end of the log
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, payload.length);
+                if ((int) crc.getValue() != storedCrc) {
+                    break;
+                }
+                consumer.accept(payload);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes a big-endian int to a byte stream
+     */
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+}
@@ -1,247 +1,7 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
-import java.util.ArrayList;
-
-/**
- * Student Class
- * Encapsulates student information with proper access modifiers
- * Uses private instance variables to ensure data encapsulation
- */
-class Student {
-    // Private instance variables for student information
-    private String name;
-    private String studentId;
-    private int age;
-    private String grade;
-    
-    /**
-     * Constructor to initialize a new Student object
-     * @param name Student's full name
-     * @param studentId Unique student identifier
-     * @param age Student's age
-     * @param grade Student's current grade/class
-     */
-    public Student(String name, String studentId, int age, String grade) {
-        this.name = name;
-        this.studentId = studentId;
-        this.age = age;
-        this.grade = grade;
-    }
-    
-    // Public getter methods to access private variables
-    public String getName() {
-        return name;
-    }
-    
-    public String getStudentId() {
-        return studentId;
-    }
-    
-    public int getAge() {
-        return age;
-    }
-    
-    public String getGrade() {
-        return grade;
-    }
-    
-    // Public setter methods to modify private variables
-    public void setName(String name) {
-        this.name = name;
-    }
-    
-    public void setAge(int age) {
-        this.age = age;
-    }
-    
-    public void setGrade(String grade) {
-        this.grade = grade;
-    }
-    
-    /**
-     * Displays complete student information in a formatted manner
-     */
-    public void displayInfo() {
-        System.out.println("\n========================================");
-        System.out.println("       STUDENT INFORMATION");
-        System.out.println("========================================");
-        System.out.println("Student ID: " + studentId);
-        System.out.println("Name:       " + name);
-        System.out.println("Age:        " + age);
-        System.out.println("Grade:      " + grade);
-        System.out.println("========================================");
-    }
-}
-
-/**
- * StudentManagement Class
- * Handles all student management operations using static methods
- * Maintains a central repository of all student records
- */
-class StudentManagement {
-    // Private static variables to store student data
-    private static ArrayList<Student> studentList = new ArrayList<>();
-    private static int totalStudents = 0;
-    
-    /**
-     * Adds a new student to the management system
-     * @param name Student's name
-     * @param studentId Unique student ID
-     * @param age Student's age
-     * @param grade Student's grade
-     * @throws IllegalArgumentException if student ID already exists
-     */
-    public static void addStudent(String name, String studentId, int age, String grade) {
-        // Check if student ID already exists
-        if (findStudentById(studentId) != null) {
-            throw new IllegalArgumentException("Error: Student ID already exists!");
-        }
-        
-        // Validate age
-        if (age < 5 || age > 100) {
-            throw new IllegalArgumentException("Error: Age must be between 5 and 100!");
-        }
-        
-        // Validate name length
-        if (name.length() > 100) {
-            throw new IllegalArgumentException("Error: Name cannot exceed 100 characters!");
-        }
-        
-        // Validate grade length
-        if (grade.length() > 20) {
-            throw new IllegalArgumentException("Error: Grade cannot exceed 20 characters!");
-        }
-        
-        // Create and add new student
-        Student newStudent = new Student(name, studentId, age, grade);
-        studentList.add(newStudent);
-        totalStudents++;
-        
-        System.out.println("\nStudent added successfully!");
-        System.out.println("Total students in system: " + totalStudents);
-    }
-    
-    /**
-     * Updates existing student information
-     * @param studentId ID of the student to update
-     * @param name New name (null to keep existing)
-     * @param age New age (-1 to keep existing)
-     * @param grade New grade (null to keep existing)
-     * @throws IllegalArgumentException if student not found
-     */
-    public static void updateStudent(String studentId, String name, int age, String grade) {
-        Student student = findStudentById(studentId);
-        
-        if (student == null) {
-            throw new IllegalArgumentException("Error: Student ID not found!");
-        }
-        
-        // Update only non-null/non-default values
-        if (name != null && !name.trim().isEmpty()) {
-            if (name.length() > 100) {
-                throw new IllegalArgumentException("Error: Name cannot exceed 100 characters!");
-            }
-            student.setName(name);
-        }
-        
-        if (age != -1) {
-            if (age < 5 || age > 100) {
-                throw new IllegalArgumentException("Error: Age must be between 5 and 100!");
-            }
-            student.setAge(age);
-        }
-        
-        if (grade != null && !grade.trim().isEmpty()) {
-            if (grade.length() > 20) {
-                throw new IllegalArgumentException("Error: Grade cannot exceed 20 characters!");
-            }
-            student.setGrade(grade);
-        }
-        
-        System.out.println("\nStudent information updated successfully!");
-    }
-    
-    /**
-     * Retrieves and displays information for a specific student
-     * @param studentId ID of the student to view
-     * @throws IllegalArgumentException if student not found
-     */
-    public static void viewStudent(String studentId) {
-        Student student = findStudentById(studentId);
-        
-        if (student == null) {
-            throw new IllegalArgumentException("Error: Student ID not found!");
-        }
-        
-        student.displayInfo();
-    }
-    
-    /**
-     * Displays all students in the system
-     */
-    public static void viewAllStudents() {
-        if (studentList.isEmpty()) {
-            System.out.println("\nNo students in the system.");
-            return;
-        }
-        
-        System.out.println("\n========================================");
-        System.out.println("     ALL STUDENTS IN SYSTEM");
-        System.out.println("========================================");
-        System.out.printf("%-12s %-20s %-8s %-15s%n", "Student ID", "Name", "Age", "Grade");
-        System.out.println("----------------------------------------");
-        
-        for (Student student : studentList) {
-            System.out.printf("%-12s %-20s %-8d %-15s%n", 
-                student.getStudentId(), 
-                student.getName(), 
-                student.getAge(), 
-                student.getGrade());
-        }
-        
-        System.out.println("========================================");
-        System.out.println("Total Students: " + totalStudents);
-    }
-    
-    /**
-     * Helper method to find a student by ID
-     * @param studentId ID to search for
-     * @return Student object if found, null otherwise
-     */
-    private static Student findStudentById(String studentId) {
-        for (Student student : studentList) {
-            if (student.getStudentId().equalsIgnoreCase(studentId)) {
-                return student;
-            }
-        }
-        return null;
-    }
-    
-    /**
-     * Returns the total number of students in the system
-     * @return Total student count
-     */
-    public static int getTotalStudents() {
-        return totalStudents;
-    }
-    
-    /**
-     * Deletes a student from the system
-     * @param studentId ID of student to delete
-     * @throws IllegalArgumentException if student not found
-     */
-    public static void deleteStudent(String studentId) {
-        Student student = findStudentById(studentId);
-        
-        if (student == null) {
-            throw new IllegalArgumentException("Error: Student ID not found!");
-        }
-        
-        studentList.remove(student);
-        totalStudents--;
-        System.out.println("\nStudent deleted successfully!");
-        System.out.println("Total students in system: " + totalStudents);
-    }
-}
 
 /**
  * AdministratorInterface Class
@@ -251,12 +11,26 @@ class StudentManagement {
 public class AdministratorInterface {
     private static Scanner scanner = new Scanner(System.in);
     
+    // Most students shown for one name search
+    private static final int NAME_SEARCH_LIMIT = 20;
+    
     /**
      * Main method - Entry point of the application
      */
     public static void main(String[] args) {
         displayWelcomeMessage();
         
+        // An optional data file keeps records between runs
+        if (args.length > 0) {
+            try {
+                int loaded = StudentManagement.openStore(Paths.get(args[0]));
+                System.out.println("Using data file " + args[0] + " (" + loaded + " students)");
+            } catch (IOException e) {
+                System.out.println("Error: Could not open data file: " + e.getMessage());
+                return;
+            }
+        }
+        
         boolean exit = false;
         
         while (!exit) {
@@ -281,11 +55,26 @@ public class AdministratorInterface {
                         deleteStudent();
                         break;
                     case 6:
+                        deleteStudentsInGrade();
+                        break;
+                    case 7:
+                        importStudents();
+                        break;
+                    case 8:
+                        exportStudents();
+                        break;
+                    case 9:
+                        searchStudents();
+                        break;
+                    case 10:
+                        searchStudentsByName();
+                        break;
+                    case 11:
                         exit = true;
                         displayExitMessage();
                         break;
                     default:
-                        System.out.println("\nInvalid choice! Please select 1-6.");
+                        System.out.println("\nInvalid choice! Please select 1-11.");
                 }
                 
                 if (!exit) {
@@ -322,16 +111,21 @@ public class AdministratorInterface {
         System.out.println("3. View Student Details");
         System.out.println("4. View All Students");
         System.out.println("5. Delete Student");
-        System.out.println("6. Exit System");
+        System.out.println("6. Delete All Students in a Grade");
+        System.out.println("7. Import Students from File");
+        System.out.println("8. Export Students to File");
+        System.out.println("9. Search Students by Age and Grade");
+        System.out.println("10. Search Students by Name");
+        System.out.println("11. Exit System");
         System.out.println("--------------------------");
     }
     
     /**
      * Gets menu choice from user with error handling
-     * @return Valid menu choice (1-6)
+     * @return Valid menu choice (1-11)
      */
     private static int getMenuChoice() {
-        System.out.print("\nEnter your choice (1-6): ");
+        System.out.print("\nEnter your choice (1-11): ");
         
         if (!scanner.hasNextInt()) {
             scanner.nextLine(); // Clear invalid input
@@ -466,6 +260,152 @@ public class AdministratorInterface {
         }
     }
     
+    /**
+     * Handles deleting every student in a grade
+     */
+    private static void deleteStudentsInGrade() {
+        System.out.println("\n========================================");
+        System.out.println("    DELETE ALL STUDENTS IN A GRADE");
+        System.out.println("========================================");
+        
+        System.out.print("Enter grade to delete: ");
+        String grade = scanner.nextLine().trim();
+        
+        if (grade.isEmpty()) {
+            throw new IllegalArgumentException("Grade cannot be empty!");
+        }
+        
+        System.out.print("Are you sure you want to delete every student in this grade? (yes/no): ");
+        String confirm = scanner.nextLine().trim().toLowerCase();
+        
+        if (confirm.equals("yes") || confirm.equals("y")) {
+            StudentManagement.deleteStudentsInGrade(grade);
+        } else {
+            System.out.println("\nDeletion cancelled.");
+        }
+    }
+    
+    /**
+     * Handles searching students by age range and grade
+     */
+    private static void searchStudents() {
+        System.out.println("\n========================================");
+        System.out.println("   SEARCH STUDENTS BY AGE AND GRADE");
+        System.out.println("========================================");
+        
+        System.out.println("\nLeave field blank to match any value");
+        
+        int minAge = readOptionalAge("Enter minimum age (or press Enter to skip): ");
+        int maxAge = readOptionalAge("Enter maximum age (or press Enter to skip): ");
+        
+        System.out.print("Enter grade (or press Enter to skip): ");
+        String grade = scanner.nextLine().trim();
+        
+        StudentManagement.viewStudentsMatching(minAge, maxAge, grade);
+    }
+    
+    /**
+     * Handles searching students by whole, partial or misspelled name
+     */
+    private static void searchStudentsByName() {
+        System.out.println("\n========================================");
+        System.out.println("       SEARCH STUDENTS BY NAME");
+        System.out.println("========================================");
+        
+        System.out.print("\nEnter name or start of name: ");
+        String query = scanner.nextLine().trim();
+        
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty!");
+        }
+        
+        StudentManagement.viewStudentsNamed(query, NAME_SEARCH_LIMIT);
+    }
+    
+    /**
+     * Reads an age that may be left blank
+     * @param prompt Prompt to display
+     * @return The age entered, or -1 if left blank
+     */
+    private static int readOptionalAge(String prompt) {
+        System.out.print(prompt);
+        String text = scanner.nextLine().trim();
+        
+        if (text.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Age must be a number!");
+        }
+    }
+    
+    /**
+     * Handles importing students from a CSV (.csv) or binary file
+     */
+    private static void importStudents() {
+        System.out.println("\n========================================");
+        System.out.println("     IMPORT STUDENTS FROM FILE");
+        System.out.println("========================================");
+        
+        Path file = promptForFile("Enter file to import (.csv or binary): ");
+        
+        try {
+            StudentRecordTransfer.ImportReport report = isCsvFile(file)
+                ? StudentRecordTransfer.importCsv(file)
+                : StudentRecordTransfer.importBinary(file);
+            report.displayInfo();
+            System.out.println("Total students in system: " + StudentManagement.getTotalStudents());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error: Could not import file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Handles exporting all students to a CSV (.csv) or binary file
+     */
+    private static void exportStudents() {
+        System.out.println("\n========================================");
+        System.out.println("      EXPORT STUDENTS TO FILE");
+        System.out.println("========================================");
+        
+        Path file = promptForFile("Enter file to export to (.csv or binary): ");
+        
+        try {
+            long written = isCsvFile(file)
+                ? StudentRecordTransfer.exportCsv(file)
+                : StudentRecordTransfer.exportBinary(file);
+            System.out.println("\n" + written + " student(s) exported to " + file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error: Could not export file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Reads a file path from the user
+     * @param prompt Prompt to display
+     * @return Path entered by the user
+     */
+    private static Path promptForFile(String prompt) {
+        System.out.print(prompt);
+        String fileName = scanner.nextLine().trim();
+        
+        if (fileName.isEmpty()) {
+            throw new IllegalArgumentException("File name cannot be empty!");
+        }
+        return Paths.get(fileName);
+    }
+    
+    /**
+     * Checks whether a file should be read or written as CSV
+     * @param file File path
+     * @return true for files ending in .csv
+     */
+    private static boolean isCsvFile(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".csv");
+    }
+    
     /**
      * Displays exit message
      */
@@ -475,6 +415,7 @@ public class AdministratorInterface {
         System.out.println("Total students managed: " + StudentManagement.getTotalStudents());
         System.out.println("Goodbye!");
         System.out.println("========================================");
+        StudentManagement.closeStore();
     }
     
     /**
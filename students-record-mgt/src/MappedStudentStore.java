@@ -0,0 +1,548 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * MappedStudentStore Class
+ * StudentStore kept in a memory-mapped file, so records survive restarts
+ *
+ * Names are capped at 100 characters, grades at 20 and IDs at 32, so
+ * every record fits a fixed-width slot and is addressed by slot number.
+ * Reads and updates go straight to the mapped file, which is mapped in
+ * segments; the last segment starts small and doubles as slots are added,
+ * so a small store keeps a small file. Deleted slots are chained into a
+ * free list and reused by later additions, so records are listed in slot
+ * order, which is insertion order until a freed slot is reused.
+ *
+ * The ID-to-slot index is an open-addressing hash table kept in a second
+ * mapped file next to the data file, so opening a store does not read the
+ * records. A flag in the data file records whether the store was closed
+ * cleanly; if not, the counts in the header may be stale too, so the
+ * index, the slot and live counts and the free list are all rebuilt from
+ * the slots' used flags when opened.
+ */
+class MappedStudentStore implements StudentStore {
+    public static final int MAX_ID_LENGTH = 32;
+    public static final int MAX_NAME_LENGTH = 100;
+    public static final int MAX_GRADE_LENGTH = 20;
+
+    // Data file header: magic, slot size, slot count, live count, free list head, clean flag
+    private static final int DATA_MAGIC = 0x53524D44; // "SRMD"
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_AT = 0;
+    private static final int SLOT_SIZE_AT = 4;
+    private static final int SLOT_COUNT_AT = 8;
+    private static final int LIVE_COUNT_AT = 12;
+    private static final int FREE_HEAD_AT = 16;
+    private static final int CLEAN_AT = 20;
+
+    // Slot layout: used flag, age (next free slot when unused), then each
+    // text field as a length followed by its fixed number of chars
+    private static final int USED_AT = 0;
+    private static final int AGE_AT = 4;
+    private static final int NEXT_FREE_AT = 4;
+    private static final int ID_AT = 8;
+    private static final int NAME_AT = ID_AT + 2 + 2 * MAX_ID_LENGTH;
+    private static final int GRADE_AT = NAME_AT + 2 + 2 * MAX_NAME_LENGTH;
+    private static final int SLOT_SIZE = 320;
+
+    // The data file is mapped in segments of this many slots; the last
+    // segment starts at MIN_SEGMENT_SLOTS and doubles as it fills
+    private static final int SEGMENT_SLOTS = 1 << 16;
+    private static final int MIN_SEGMENT_SLOTS = 1 << 8;
+
+    // Index file: magic, capacity, size, then (hash, slot + 1) entries
+    private static final int INDEX_MAGIC = 0x53524D49; // "SRMI"
+    private static final int INDEX_HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 8;
+    private static final int MIN_INDEX_CAPACITY = 1 << 12;
+
+    private final FileChannel dataChannel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int indexCapacity;
+    private int indexSize;
+
+    private int slotCount;
+    private int liveCount;
+    private int freeHead;
+
+    /**
+     * Opens a store, creating the file if it does not exist
+     * @param dataFile Data file; the index is kept in the same name plus ".idx"
+     * @throws IOException if the files cannot be opened or are not student files
+     */
+    public MappedStudentStore(Path dataFile) throws IOException {
+        Path indexFile = dataFile.resolveSibling(dataFile.getFileName() + ".idx");
+        dataChannel = FileChannel.open(dataFile, StandardOpenOption.CREATE,
+                                       StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = dataChannel.size() == 0;
+        header = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (created) {
+            header.putInt(MAGIC_AT, DATA_MAGIC);
+            header.putInt(SLOT_SIZE_AT, SLOT_SIZE);
+            header.putInt(FREE_HEAD_AT, -1);
+            header.put(CLEAN_AT, (byte) 1);
+        } else if (header.getInt(MAGIC_AT) != DATA_MAGIC || header.getInt(SLOT_SIZE_AT) != SLOT_SIZE) {
+            dataChannel.close();
+            throw new IOException("Not a student data file: " + dataFile);
+        }
+        slotCount = header.getInt(SLOT_COUNT_AT);
+        liveCount = header.getInt(LIVE_COUNT_AT);
+        freeHead = header.getInt(FREE_HEAD_AT);
+        boolean closedCleanly = header.get(CLEAN_AT) == 1;
+
+        indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!closedCleanly || !openIndex()) {
+            rebuildIndex();
+        }
+
+        // Until close() runs, a restart must not trust the index
+        header.put(CLEAN_AT, (byte) 0);
+        header.force();
+    }
+
+    @Override
+    public void add(Student student) {
+        checkLength(student.getStudentId(), MAX_ID_LENGTH, "Student ID");
+        checkLength(student.getName(), MAX_NAME_LENGTH, "Name");
+        checkLength(student.getGrade(), MAX_GRADE_LENGTH, "Grade");
+
+        int slot;
+        if (freeHead >= 0) {
+            slot = freeHead;
+            freeHead = segmentOf(slot).getInt(offsetOf(slot) + NEXT_FREE_AT);
+        } else {
+            slot = slotCount++;
+        }
+        MappedByteBuffer segment = segmentOf(slot);
+        int at = offsetOf(slot);
+        writeText(segment, at + ID_AT, student.getStudentId());
+        writeFields(segment, at, student);
+        segment.put(at + USED_AT, (byte) 1);
+        liveCount++;
+        insertIndexEntry(hashOf(StudentRecordStore.indexKey(student.getStudentId())), slot);
+        writeCounts();
+    }
+
+    @Override
+    public Student get(String studentId) {
+        int entry = findIndexEntry(studentId);
+        return entry < 0 ? null : readStudent(slotAt(entry));
+    }
+
+    /**
+     * Writes a student's name, age and grade back to its slot
+     * @param student Changed student
+     */
+    @Override
+    public void update(Student student) {
+        int entry = findIndexEntry(student.getStudentId());
+        if (entry < 0) {
+            return;
+        }
+        checkLength(student.getName(), MAX_NAME_LENGTH, "Name");
+        checkLength(student.getGrade(), MAX_GRADE_LENGTH, "Grade");
+        int slot = slotAt(entry);
+        writeFields(segmentOf(slot), offsetOf(slot), student);
+    }
+
+    @Override
+    public Student remove(String studentId) {
+        int entry = findIndexEntry(studentId);
+        if (entry < 0) {
+            return null;
+        }
+        int slot = slotAt(entry);
+        Student removed = readStudent(slot);
+        deleteIndexEntry(entry);
+        freeSlot(slot);
+        writeCounts();
+        return removed;
+    }
+
+    @Override
+    public int removeIf(Predicate<Student> condition) {
+        int removed = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!isUsed(slot)) {
+                continue;
+            }
+            Student student = readStudent(slot);
+            if (condition.test(student)) {
+                deleteIndexEntry(findIndexEntry(student.getStudentId()));
+                freeSlot(slot);
+                removed++;
+            }
+        }
+        writeCounts();
+        return removed;
+    }
+
+    /**
+     * Drops free slots at the end of the file, truncates the file to the
+     * remaining slots and relinks the free list so the lowest free slots
+     * are reused first
+     */
+    @Override
+    public void compact() {
+        while (slotCount > 0 && !isUsed(slotCount - 1)) {
+            slotCount--;
+        }
+        freeHead = -1;
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            if (!isUsed(slot)) {
+                segmentOf(slot).putInt(offsetOf(slot) + NEXT_FREE_AT, freeHead);
+                freeHead = slot;
+            }
+        }
+        writeCounts();
+
+        // Remap from scratch: mapping the segments again extends the file
+        // only as far as the remaining slots need
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            segments.clear();
+            dataChannel.truncate(HEADER_SIZE + (long) slotCount * SLOT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        mapSlots(slotCount);
+    }
+
+    @Override
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Flushes the files and marks the store as cleanly closed
+     */
+    @Override
+    public void close() {
+        try {
+            writeCounts();
+            index.force();
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            header.put(CLEAN_AT, (byte) 1);
+            header.force();
+            indexChannel.close();
+            dataChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Iterates over the records in slot order
+     * @return Record iterator
+     */
+    @Override
+    public Iterator<Student> iterator() {
+        return new Iterator<Student>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < slotCount && !isUsed(from)) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < slotCount;
+            }
+
+            @Override
+            public Student next() {
+                if (next >= slotCount) {
+                    throw new NoSuchElementException();
+                }
+                Student student = readStudent(next);
+                next = advance(next + 1);
+                return student;
+            }
+        };
+    }
+
+    // ---- Slots ----
+
+    private MappedByteBuffer segmentOf(int slot) {
+        if (slot >= mappedSlots()) {
+            mapSlots(slot + 1);
+        }
+        return segments.get(slot / SEGMENT_SLOTS);
+    }
+
+    private int mappedSlots() {
+        int last = segments.size() - 1;
+        return last < 0 ? 0 : last * SEGMENT_SLOTS + segments.get(last).capacity() / SLOT_SIZE;
+    }
+
+    /**
+     * Maps at least the given number of slots, filling earlier segments
+     * and doubling the last one; mapping past the end grows the file
+     */
+    private void mapSlots(int count) {
+        try {
+            while (mappedSlots() < count) {
+                int last = segments.size() - 1;
+                if (last < 0 || segments.get(last).capacity() == SEGMENT_SLOTS * SLOT_SIZE) {
+                    segments.add(mapSegment(last + 1, MIN_SEGMENT_SLOTS));
+                } else {
+                    int slots = Math.min(SEGMENT_SLOTS, 2 * segments.get(last).capacity() / SLOT_SIZE);
+                    segments.set(last, mapSegment(last, slots));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer mapSegment(int segment, int slots) throws IOException {
+        long start = HEADER_SIZE + (long) segment * SEGMENT_SLOTS * SLOT_SIZE;
+        return dataChannel.map(FileChannel.MapMode.READ_WRITE, start, (long) slots * SLOT_SIZE);
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot % SEGMENT_SLOTS) * SLOT_SIZE;
+    }
+
+    private boolean isUsed(int slot) {
+        return segmentOf(slot).get(offsetOf(slot) + USED_AT) == 1;
+    }
+
+    private Student readStudent(int slot) {
+        MappedByteBuffer segment = segmentOf(slot);
+        int at = offsetOf(slot);
+        return new Student(readText(segment, at + NAME_AT), readText(segment, at + ID_AT),
+                           segment.getInt(at + AGE_AT), readText(segment, at + GRADE_AT));
+    }
+
+    private static void writeFields(MappedByteBuffer segment, int at, Student student) {
+        segment.putInt(at + AGE_AT, student.getAge());
+        writeText(segment, at + NAME_AT, student.getName());
+        writeText(segment, at + GRADE_AT, student.getGrade());
+    }
+
+    private void freeSlot(int slot) {
+        MappedByteBuffer segment = segmentOf(slot);
+        int at = offsetOf(slot);
+        segment.put(at + USED_AT, (byte) 0);
+        segment.putInt(at + NEXT_FREE_AT, freeHead);
+        freeHead = slot;
+        liveCount--;
+    }
+
+    private void writeCounts() {
+        header.putInt(SLOT_COUNT_AT, slotCount);
+        header.putInt(LIVE_COUNT_AT, liveCount);
+        header.putInt(FREE_HEAD_AT, freeHead);
+    }
+
+    private static String readText(MappedByteBuffer segment, int at) {
+        int length = segment.getShort(at);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = segment.getChar(at + 2 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    private static void writeText(MappedByteBuffer segment, int at, String value) {
+        segment.putShort(at, (short) value.length());
+        for (int i = 0; i < value.length(); i++) {
+            segment.putChar(at + 2 + 2 * i, value.charAt(i));
+        }
+    }
+
+    private static void checkLength(String value, int maximum, String field) {
+        if (value.length() > maximum) {
+            throw new IllegalArgumentException("Error: " + field + " cannot exceed " + maximum + " characters!");
+        }
+    }
+
+    // ---- ID index ----
+
+    /**
+     * Maps an existing index file if it matches the data file
+     * @return false if the index must be rebuilt
+     */
+    private boolean openIndex() throws IOException {
+        if (indexChannel.size() < INDEX_HEADER_SIZE) {
+            return false;
+        }
+        MappedByteBuffer existing = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE);
+        int capacity = existing.getInt(4);
+        if (existing.getInt(0) != INDEX_MAGIC || existing.getInt(8) != liveCount
+                || Integer.bitCount(capacity) != 1
+                || indexChannel.size() < INDEX_HEADER_SIZE + (long) capacity * ENTRY_SIZE) {
+            return false;
+        }
+        mapIndex(capacity);
+        indexSize = liveCount;
+        return true;
+    }
+
+    /**
+     * Rebuilds the index, the slot and live counts and the free list by
+     * scanning every slot in the file. A slot added after the header was
+     * last written extends the slot count.
+     */
+    private void rebuildIndex() {
+        int fileSlots;
+        try {
+            fileSlots = (int) ((dataChannel.size() - HEADER_SIZE) / SLOT_SIZE);
+            indexChannel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int lastUsed = -1;
+        for (int slot = Math.max(slotCount, fileSlots) - 1; slot >= 0 && lastUsed < 0; slot--) {
+            if (isUsed(slot)) {
+                lastUsed = slot;
+            }
+        }
+        slotCount = lastUsed + 1;
+
+        // The header's live count is only a sizing hint here
+        int capacity = MIN_INDEX_CAPACITY;
+        while (capacity < liveCount * 2) {
+            capacity *= 2;
+        }
+        mapIndex(capacity);
+        indexSize = 0;
+        liveCount = 0;
+        freeHead = -1;
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            MappedByteBuffer segment = segmentOf(slot);
+            int at = offsetOf(slot);
+            if (segment.get(at + USED_AT) == 1) {
+                insertIndexEntry(hashOf(StudentRecordStore.indexKey(readText(segment, at + ID_AT))), slot);
+                liveCount++;
+            } else {
+                segment.putInt(at + NEXT_FREE_AT, freeHead);
+                freeHead = slot;
+            }
+        }
+        writeCounts();
+    }
+
+    private void mapIndex(int capacity) {
+        try {
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                                     INDEX_HEADER_SIZE + (long) capacity * ENTRY_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        indexCapacity = capacity;
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, capacity);
+    }
+
+    private int findIndexEntry(String studentId) {
+        if (studentId == null) {
+            return -1;
+        }
+        String key = StudentRecordStore.indexKey(studentId);
+        int hash = hashOf(key);
+        int mask = indexCapacity - 1;
+        for (int entry = hash & mask; slotAt(entry) >= 0; entry = (entry + 1) & mask) {
+            if (hashAt(entry) == hash) {
+                int slot = slotAt(entry);
+                if (StudentRecordStore.indexKey(readText(segmentOf(slot), offsetOf(slot) + ID_AT)).equals(key)) {
+                    return entry;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void insertIndexEntry(int hash, int slot) {
+        if ((indexSize + 1) * 2 > indexCapacity) {
+            growIndex();
+        }
+        int mask = indexCapacity - 1;
+        int entry = hash & mask;
+        while (slotAt(entry) >= 0) {
+            entry = (entry + 1) & mask;
+        }
+        putEntry(entry, hash, slot);
+        index.putInt(8, ++indexSize);
+    }
+
+    /**
+     * Removes an entry, shifting later entries of the same probe run back
+     * so lookups never need tombstones
+     */
+    private void deleteIndexEntry(int entry) {
+        int mask = indexCapacity - 1;
+        int hole = entry;
+        for (int next = (hole + 1) & mask; slotAt(next) >= 0; next = (next + 1) & mask) {
+            int home = hashAt(next) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                putEntry(hole, hashAt(next), slotAt(next));
+                hole = next;
+            }
+        }
+        putEntry(hole, 0, -1);
+        index.putInt(8, --indexSize);
+    }
+
+    private void growIndex() {
+        int oldCapacity = indexCapacity;
+        int[] hashes = new int[indexSize];
+        int[] slots = new int[indexSize];
+        int count = 0;
+        for (int entry = 0; entry < oldCapacity; entry++) {
+            if (slotAt(entry) >= 0) {
+                hashes[count] = hashAt(entry);
+                slots[count] = slotAt(entry);
+                count++;
+            }
+        }
+        mapIndex(oldCapacity * 2);
+        for (int entry = 0; entry < indexCapacity; entry++) {
+            putEntry(entry, 0, -1);
+        }
+        indexSize = 0;
+        for (int i = 0; i < count; i++) {
+            insertIndexEntry(hashes[i], slots[i]);
+        }
+    }
+
+    private int hashAt(int entry) {
+        return index.getInt(INDEX_HEADER_SIZE + entry * ENTRY_SIZE);
+    }
+
+    private int slotAt(int entry) {
+        return index.getInt(INDEX_HEADER_SIZE + entry * ENTRY_SIZE + 4) - 1;
+    }
+
+    private void putEntry(int entry, int hash, int slot) {
+        index.putInt(INDEX_HEADER_SIZE + entry * ENTRY_SIZE, hash);
+        index.putInt(INDEX_HEADER_SIZE + entry * ENTRY_SIZE + 4, slot + 1);
+    }
+
+    private static int hashOf(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
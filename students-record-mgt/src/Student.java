@@ -0,0 +1,70 @@
+/**
+ * Student Class
+ * Encapsulates student information with proper access modifiers
+ * Uses private instance variables to ensure data encapsulation
+ */
+class Student {
+    // Private instance variables for student information
+    private String name;
+    private String studentId;
+    private int age;
+    private String grade;
+    
+    /**
+     * Constructor to initialize a new Student object
+     * @param name Student's full name
+     * @param studentId Unique student identifier
+     * @param age Student's age
+     * @param grade Student's current grade/class
+     */
+    public Student(String name, String studentId, int age, String grade) {
+        this.name = name;
+        this.studentId = studentId;
+        this.age = age;
+        this.grade = grade;
+    }
+    
+    // Public getter methods to access private variables
+    public String getName() {
+        return name;
+    }
+    
+    public String getStudentId() {
+        return studentId;
+    }
+    
+    public int getAge() {
+        return age;
+    }
+    
+    public String getGrade() {
+        return grade;
+    }
+    
+    // Public setter methods to modify private variables
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public void setAge(int age) {
+        this.age = age;
+    }
+    
+    public void setGrade(String grade) {
+        this.grade = grade;
+    }
+    
+    /**
+     * Displays complete student information in a formatted manner
+     */
+    public void displayInfo() {
+        System.out.println("\n========================================");
+        System.out.println("       STUDENT INFORMATION");
+        System.out.println("========================================");
+        System.out.println("Student ID: " + studentId);
+        System.out.println("Name:       " + name);
+        System.out.println("Age:        " + age);
+        System.out.println("Grade:      " + grade);
+        System.out.println("========================================");
+    }
+}
@@ -0,0 +1,413 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * StudentManagement Class
+ * Handles all student management operations using static methods
+ * Maintains a central repository of all student records
+ */
+class StudentManagement {
+    // Private static variables to store student data
+    private static StudentStore studentList = new StudentRecordStore();
+    private static int totalStudents = 0;
+    
+    // Secondary indexes on age and grade, kept in step with studentList
+    private static StudentQueryIndex queryIndex = new StudentQueryIndex();
+    
+    // Prefix and fuzzy name index, kept in step with studentList
+    private static StudentNameIndex nameIndex = new StudentNameIndex();
+    
+    // False after openStore until the first search builds both indexes
+    private static boolean indexesBuilt = true;
+    
+    /**
+     * Switches to a persistent store kept in a memory-mapped file
+     * Students already in memory are copied into the file
+     * @param dataFile Data file, created if it does not exist
+     * @return Number of students in the system afterwards
+     * @throws IOException if the file cannot be opened
+     */
+    public static int openStore(Path dataFile) throws IOException {
+        MappedStudentStore store = new MappedStudentStore(dataFile);
+        for (Student student : studentList) {
+            if (store.get(student.getStudentId()) == null) {
+                store.add(student);
+            }
+        }
+        studentList.close();
+        studentList = store;
+        totalStudents = store.size();
+        
+        // Secondary indexes live in memory; they are rebuilt from the file
+        // by the first search, so opening stays as fast as the store itself
+        queryIndex.clear();
+        nameIndex.clear();
+        indexesBuilt = false;
+        return totalStudents;
+    }
+    
+    /**
+     * Builds the secondary indexes from the store if openStore left them empty
+     */
+    private static void buildIndexes() {
+        if (indexesBuilt) {
+            return;
+        }
+        for (Student student : studentList) {
+            queryIndex.add(student);
+            nameIndex.add(student);
+        }
+        indexesBuilt = true;
+    }
+    
+    /**
+     * Flushes and closes the persistent store, if one is open
+     * The system continues with an empty in-memory store
+     */
+    public static void closeStore() {
+        studentList.close();
+        studentList = new StudentRecordStore();
+        queryIndex.clear();
+        nameIndex.clear();
+        indexesBuilt = true;
+        totalStudents = 0;
+    }
+    
+    /**
+     * Adds a new student to the management system
+     * @param name Student's name
+     * @param studentId Unique student ID
+     * @param age Student's age
+     * @param grade Student's grade
+     * @throws IllegalArgumentException if student ID already exists
+     */
+    public static void addStudent(String name, String studentId, int age, String grade) {
+        // Check if student ID already exists
+        if (findStudentById(studentId) != null) {
+            throw new IllegalArgumentException("Error: Student ID already exists!");
+        }
+        
+        validateStudent(name, age, grade);
+        
+        // Create and add new student
+        storeStudent(new Student(name, studentId, age, grade));
+        
+        System.out.println("\nStudent added successfully!");
+        System.out.println("Total students in system: " + totalStudents);
+    }
+    
+    /**
+     * Checks a new student's fields against the system's rules
+     * Shared by addStudent and the bulk importer
+     * @param name Student's name
+     * @param age Student's age
+     * @param grade Student's grade
+     * @throws IllegalArgumentException if a field breaks a rule
+     */
+    static void validateStudent(String name, int age, String grade) {
+        // Validate age
+        if (age < 5 || age > 100) {
+            throw new IllegalArgumentException("Error: Age must be between 5 and 100!");
+        }
+        
+        // Validate name length
+        if (name.length() > 100) {
+            throw new IllegalArgumentException("Error: Name cannot exceed 100 characters!");
+        }
+        
+        // Validate grade length
+        if (grade.length() > 20) {
+            throw new IllegalArgumentException("Error: Grade cannot exceed 20 characters!");
+        }
+    }
+    
+    /**
+     * Stores an already validated student without printing anything
+     * @param student Student to store
+     * @throws IllegalArgumentException if student ID already exists
+     */
+    static void storeStudent(Student student) {
+        if (findStudentById(student.getStudentId()) != null) {
+            throw new IllegalArgumentException("Error: Student ID already exists!");
+        }
+        studentList.add(student);
+        if (indexesBuilt) {
+            queryIndex.add(student);
+            nameIndex.add(student);
+        }
+        totalStudents++;
+    }
+    
+    /**
+     * Returns all students in insertion order, for export
+     * @return Read-only sequence of students
+     */
+    static Iterable<Student> getAllStudents() {
+        return studentList;
+    }
+    
+    /**
+     * Updates existing student information
+     * @param studentId ID of the student to update
+     * @param name New name (null to keep existing)
+     * @param age New age (-1 to keep existing)
+     * @param grade New grade (null to keep existing)
+     * @throws IllegalArgumentException if student not found
+     */
+    public static void updateStudent(String studentId, String name, int age, String grade) {
+        Student student = findStudentById(studentId);
+        
+        if (student == null) {
+            throw new IllegalArgumentException("Error: Student ID not found!");
+        }
+        
+        // Update only non-null/non-default values
+        // Fields changed before a failed check are still saved
+        try {
+            if (name != null && !name.trim().isEmpty()) {
+                if (name.length() > 100) {
+                    throw new IllegalArgumentException("Error: Name cannot exceed 100 characters!");
+                }
+                student.setName(name);
+            }
+            
+            if (age != -1) {
+                if (age < 5 || age > 100) {
+                    throw new IllegalArgumentException("Error: Age must be between 5 and 100!");
+                }
+                student.setAge(age);
+            }
+            
+            if (grade != null && !grade.trim().isEmpty()) {
+                if (grade.length() > 20) {
+                    throw new IllegalArgumentException("Error: Grade cannot exceed 20 characters!");
+                }
+                student.setGrade(grade);
+            }
+        } finally {
+            studentList.update(student);
+            if (indexesBuilt) {
+                queryIndex.update(student);
+                nameIndex.update(student);
+            }
+        }
+        
+        System.out.println("\nStudent information updated successfully!");
+    }
+    
+    /**
+     * Retrieves and displays information for a specific student
+     * @param studentId ID of the student to view
+     * @throws IllegalArgumentException if student not found
+     */
+    public static void viewStudent(String studentId) {
+        Student student = findStudentById(studentId);
+        
+        if (student == null) {
+            throw new IllegalArgumentException("Error: Student ID not found!");
+        }
+        
+        student.displayInfo();
+    }
+    
+    /**
+     * Displays all students in the system
+     */
+    public static void viewAllStudents() {
+        if (studentList.isEmpty()) {
+            System.out.println("\nNo students in the system.");
+            return;
+        }
+        
+        System.out.println("\n========================================");
+        System.out.println("     ALL STUDENTS IN SYSTEM");
+        System.out.println("========================================");
+        System.out.printf("%-12s %-20s %-8s %-15s%n", "Student ID", "Name", "Age", "Grade");
+        System.out.println("----------------------------------------");
+        
+        for (Student student : studentList) {
+            System.out.printf("%-12s %-20s %-8d %-15s%n", 
+                student.getStudentId(), 
+                student.getName(), 
+                student.getAge(), 
+                student.getGrade());
+        }
+        
+        System.out.println("========================================");
+        System.out.println("Total Students: " + totalStudents);
+    }
+    
+    /**
+     * Finds students by age range and grade using the secondary indexes
+     * @param minAge Lowest age to include (-1 for no lower bound)
+     * @param maxAge Highest age to include (-1 for no upper bound)
+     * @param grade Grade to match, case-insensitively (null or empty for any grade)
+     * @return Matching students
+     */
+    public static List<Student> findStudents(int minAge, int maxAge, String grade) {
+        buildIndexes();
+        List<Student> matches = new ArrayList<>();
+        for (String id : queryIndex.find(minAge, maxAge, grade)) {
+            matches.add(studentList.get(id));
+        }
+        return matches;
+    }
+    
+    /**
+     * Displays students matching an age range and grade
+     * @param minAge Lowest age to include (-1 for no lower bound)
+     * @param maxAge Highest age to include (-1 for no upper bound)
+     * @param grade Grade to match (null or empty for any grade)
+     */
+    public static void viewStudentsMatching(int minAge, int maxAge, String grade) {
+        displayMatches(findStudents(minAge, maxAge, grade));
+    }
+    
+    /**
+     * Finds students by name using the name index
+     * Names starting with the query come first, followed by names that
+     * only resemble it (e.g. misspellings)
+     * @param query Whole or partial name
+     * @param limit Maximum number of students to return
+     * @return Matching students, best match first
+     */
+    public static List<Student> findStudentsByName(String query, int limit) {
+        buildIndexes();
+        Set<String> ids = new LinkedHashSet<>(nameIndex.findByPrefix(query, limit));
+        if (ids.size() < limit) {
+            for (String id : nameIndex.findSimilar(query, limit)) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(id);
+            }
+        }
+        
+        List<Student> matches = new ArrayList<>();
+        for (String id : ids) {
+            matches.add(studentList.get(id));
+        }
+        return matches;
+    }
+    
+    /**
+     * Displays the students best matching a name
+     * @param query Whole or partial name
+     * @param limit Maximum number of students to display
+     */
+    public static void viewStudentsNamed(String query, int limit) {
+        displayMatches(findStudentsByName(query, limit));
+    }
+    
+    /**
+     * Displays search results as a table
+     * @param matches Students to display
+     */
+    private static void displayMatches(List<Student> matches) {
+        if (matches.isEmpty()) {
+            System.out.println("\nNo matching students found.");
+            return;
+        }
+        
+        System.out.println("\n========================================");
+        System.out.println("       MATCHING STUDENTS");
+        System.out.println("========================================");
+        System.out.printf("%-12s %-20s %-8s %-15s%n", "Student ID", "Name", "Age", "Grade");
+        System.out.println("----------------------------------------");
+        
+        for (Student student : matches) {
+            System.out.printf("%-12s %-20s %-8d %-15s%n", 
+                student.getStudentId(), 
+                student.getName(), 
+                student.getAge(), 
+                student.getGrade());
+        }
+        
+        System.out.println("========================================");
+        System.out.println("Matching Students: " + matches.size());
+    }
+    
+    /**
+     * Helper method to find a student by ID
+     * IDs are matched case-insensitively through the primary index
+     * @param studentId ID to search for
+     * @return Student object if found, null otherwise
+     */
+    private static Student findStudentById(String studentId) {
+        return studentList.get(studentId);
+    }
+    
+    /**
+     * Returns the total number of students in the system
+     * @return Total student count
+     */
+    public static int getTotalStudents() {
+        return totalStudents;
+    }
+    
+    /**
+     * Deletes a student from the system
+     * @param studentId ID of student to delete
+     * @throws IllegalArgumentException if student not found
+     */
+    public static void deleteStudent(String studentId) {
+        Student student = findStudentById(studentId);
+        
+        if (student == null) {
+            throw new IllegalArgumentException("Error: Student ID not found!");
+        }
+        
+        studentList.remove(student.getStudentId());
+        if (indexesBuilt) {
+            queryIndex.remove(student.getStudentId());
+            nameIndex.remove(student.getStudentId());
+        }
+        totalStudents--;
+        System.out.println("\nStudent deleted successfully!");
+        System.out.println("Total students in system: " + totalStudents);
+    }
+    
+    /**
+     * Deletes every student matching a condition in a single pass
+     * @param condition Condition a student must meet to be deleted
+     * @return Number of students deleted
+     */
+    public static int deleteStudents(Predicate<Student> condition) {
+        int deleted = studentList.removeIf(student -> {
+            if (!condition.test(student)) {
+                return false;
+            }
+            if (indexesBuilt) {
+                queryIndex.remove(student.getStudentId());
+                nameIndex.remove(student.getStudentId());
+            }
+            return true;
+        });
+        totalStudents -= deleted;
+        return deleted;
+    }
+    
+    /**
+     * Deletes all students in a grade, e.g. a graduating class
+     * @param grade Grade to remove (matched case-insensitively)
+     * @return Number of students deleted
+     */
+    public static int deleteStudentsInGrade(String grade) {
+        int deleted = deleteStudents(student -> student.getGrade().equalsIgnoreCase(grade));
+        System.out.println("\n" + deleted + " student(s) deleted.");
+        System.out.println("Total students in system: " + totalStudents);
+        return deleted;
+    }
+    
+    /**
+     * Reclaims the space left by deleted students
+     */
+    public static void compactRecords() {
+        studentList.compact();
+    }
+}
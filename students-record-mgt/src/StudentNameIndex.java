@@ -0,0 +1,468 @@
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * StudentNameIndex Class
+ * Prefix and typo-tolerant name search for StudentManagement
+ *
+ * Names are normalized (lowercase, accents removed) and split into words,
+ * and every indexed name becomes a document with a dense number. A trie
+ * over the words answers prefix searches: each word's node lists the
+ * documents containing it. Fuzzy searches walk the same trie, computing
+ * one row of the edit distance table per node and leaving a branch as
+ * soon as no word below it can be close enough, so every word within the
+ * allowed distance is found without comparing the whole vocabulary.
+ *
+ * Removing or renaming a student only marks its old document dead, so
+ * changes cost about as much as indexing one name. Dead documents are
+ * skipped by searches and dropped by a rebuild once they outnumber live
+ * ones.
+ */
+class StudentNameIndex {
+    // Rebuilding is not worth it below this many dead documents
+    private static final int MIN_DEAD_TO_REBUILD = 1024;
+
+    // Accents and other combining marks left after decomposing a name
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    /**
+     * Trie node; a node ending a word has its vocabulary number and
+     * lists the documents containing the word
+     */
+    private static final class TrieNode {
+        char[] keys = NO_KEYS;
+        TrieNode[] children = NO_CHILDREN;
+        int childCount;
+        int word = -1;
+        IntList docs;
+
+        TrieNode child(char key) {
+            for (int i = 0; i < childCount; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode addChild(char key) {
+            TrieNode existing = child(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            TrieNode created = new TrieNode();
+            keys[childCount] = key;
+            children[childCount] = created;
+            childCount++;
+            return created;
+        }
+    }
+
+    /**
+     * Growable list of document or word numbers
+     */
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // Documents: primary index key and normalized words; both null once dead
+    private ArrayList<String> docIds = new ArrayList<>();
+    private ArrayList<String[]> docWords = new ArrayList<>();
+    private HashMap<String, Integer> docById = new HashMap<>();
+    private int deadDocs = 0;
+
+    // Distinct words with their trie nodes
+    private TrieNode root = new TrieNode();
+    private ArrayList<TrieNode> wordNodes = new ArrayList<>();
+    private ArrayList<String> vocabulary = new ArrayList<>();
+
+    // Per-document scratch scores for fuzzy searches, zero between searches
+    private double[] scores = new double[0];
+    private double[] best = new double[0];
+
+    /**
+     * Indexes a student's name, replacing any previous entry for the student
+     * @param student Student to index
+     */
+    public void add(Student student) {
+        remove(student.getStudentId());
+        index(StudentRecordStore.indexKey(student.getStudentId()), words(student.getName()));
+    }
+
+    /**
+     * Re-indexes a student after its name changed
+     * @param student Changed student
+     */
+    public void update(Student student) {
+        Integer doc = docById.get(StudentRecordStore.indexKey(student.getStudentId()));
+        if (doc != null && Arrays.equals(docWords.get(doc), words(student.getName()))) {
+            return; // Name unchanged
+        }
+        add(student);
+    }
+
+    /**
+     * Removes a student's name from the index
+     * @param studentId ID of the student to remove
+     */
+    public void remove(String studentId) {
+        Integer doc = docById.remove(StudentRecordStore.indexKey(studentId));
+        if (doc == null) {
+            return;
+        }
+        docIds.set(doc, null);
+        docWords.set(doc, null);
+        deadDocs++;
+        if (deadDocs >= MIN_DEAD_TO_REBUILD && deadDocs > docById.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Removes every name from the index
+     */
+    public void clear() {
+        docIds.clear();
+        docWords.clear();
+        docById.clear();
+        deadDocs = 0;
+        root = new TrieNode();
+        vocabulary.clear();
+        wordNodes.clear();
+    }
+
+    /**
+     * Finds names in which every word of the query starts a word
+     * Names whose matching words are shortest come first
+     * @param query Name prefix, e.g. "jo sm"
+     * @param limit Maximum number of results
+     * @return Primary index keys of the matching students, best first
+     */
+    public List<String> findByPrefix(String query, int limit) {
+        List<String> result = new ArrayList<>();
+        String[] tokens = words(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return result;
+        }
+
+        // Walk the trie below the longest token, shallowest words first,
+        // and check the other tokens against each candidate's words
+        String longest = tokens[0];
+        for (String token : tokens) {
+            if (token.length() > longest.length()) {
+                longest = token;
+            }
+        }
+        TrieNode start = find(longest);
+        if (start == null) {
+            return result;
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty() && result.size() < limit) {
+            TrieNode node = queue.poll();
+            for (int i = 0; node.docs != null && i < node.docs.size && result.size() < limit; i++) {
+                int doc = node.docs.values[i];
+                String[] words = docWords.get(doc);
+                if (words != null && seen.add(doc) && startsEveryToken(words, tokens)) {
+                    result.add(docIds.get(doc));
+                }
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                queue.add(node.children[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds names resembling the query, tolerating typos and missing words
+     * Each query word matches name words within a small edit distance;
+     * names are ranked by how closely their words match the query words
+     * @param query Name as the user remembers it
+     * @param limit Maximum number of results
+     * @return Primary index keys of the matching students, most similar first
+     */
+    public List<String> findSimilar(String query, int limit) {
+        List<String> result = new ArrayList<>();
+        String[] tokens = words(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return result;
+        }
+
+        // Sum over query words of the best word similarity per document
+        if (scores.length < docIds.size()) {
+            scores = new double[docIds.size()];
+            best = new double[docIds.size()];
+        }
+        IntList matched = new IntList();
+        for (String token : tokens) {
+            IntList touched = new IntList();
+            for (int word : similarWords(token)) {
+                double similarity = 1.0 - (double) editDistance(token, vocabulary.get(word))
+                    / Math.max(token.length(), vocabulary.get(word).length());
+                IntList docs = wordNodes.get(word).docs;
+                for (int i = 0; i < docs.size; i++) {
+                    int doc = docs.values[i];
+                    if (docIds.get(doc) == null) {
+                        continue;
+                    }
+                    if (best[doc] == 0) {
+                        touched.add(doc);
+                    }
+                    best[doc] = Math.max(best[doc], similarity);
+                }
+            }
+            for (int i = 0; i < touched.size; i++) {
+                int doc = touched.values[i];
+                if (scores[doc] == 0) {
+                    matched.add(doc);
+                }
+                scores[doc] += best[doc];
+                best[doc] = 0;
+            }
+        }
+
+        // Best score first; among equals, names with fewer extra words first.
+        // A heap holding the worst of the best matches so far keeps the
+        // ranking cheap when a common word matches many names
+        Comparator<Integer> ranking = (x, y) -> {
+            if (scores[x] != scores[y]) {
+                return Double.compare(scores[y], scores[x]);
+            }
+            if (docWords.get(x).length != docWords.get(y).length) {
+                return Integer.compare(docWords.get(x).length, docWords.get(y).length);
+            }
+            return Integer.compare(x, y);
+        };
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (int i = 0; i < matched.size; i++) {
+            top.add(matched.values[i]);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(top);
+        ranked.sort(ranking);
+        for (int doc : ranked) {
+            result.add(docIds.get(doc));
+        }
+        for (int i = 0; i < matched.size; i++) {
+            scores[matched.values[i]] = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Adds a new document for normalized words under a primary index key
+     */
+    private void index(String id, String[] words) {
+        int doc = docIds.size();
+        docIds.add(id);
+        docWords.add(words);
+        docById.put(id, doc);
+
+        for (String word : words) {
+            TrieNode node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.addChild(word.charAt(i));
+            }
+            if (node.docs == null) {
+                // First use of this word: add it to the vocabulary
+                node.docs = new IntList();
+                node.word = vocabulary.size();
+                vocabulary.add(word);
+                wordNodes.add(node);
+            }
+            if (node.docs.size == 0 || node.docs.values[node.docs.size - 1] != doc) {
+                node.docs.add(doc);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the live documents from scratch, dropping dead ones
+     */
+    private void rebuild() {
+        List<String> ids = new ArrayList<>();
+        List<String[]> names = new ArrayList<>();
+        for (int doc = 0; doc < docIds.size(); doc++) {
+            if (docIds.get(doc) != null) {
+                ids.add(docIds.get(doc));
+                names.add(docWords.get(doc));
+            }
+        }
+        clear();
+        for (int i = 0; i < ids.size(); i++) {
+            index(ids.get(i), names.get(i));
+        }
+    }
+
+    private TrieNode find(String word) {
+        TrieNode node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Finds the vocabulary words within the allowed edit distance of a
+     * query word by walking the trie
+     */
+    private List<Integer> similarWords(String token) {
+        List<Integer> similar = new ArrayList<>();
+        int maxEdits = token.length() <= 2 ? 0 : token.length() <= 5 ? 1 : 2;
+        if (maxEdits == 0) {
+            TrieNode node = find(token);
+            if (node != null && node.word != -1) {
+                similar.add(node.word);
+            }
+            return similar;
+        }
+
+        // No row deeper than this can stay within maxEdits
+        int[][] rows = new int[token.length() + maxEdits + 2][token.length() + 1];
+        for (int j = 0; j <= token.length(); j++) {
+            rows[0][j] = j;
+        }
+        char[] path = new char[rows.length];
+        for (int i = 0; i < root.childCount; i++) {
+            walkSimilar(root.children[i], root.keys[i], 1, token, maxEdits, rows, path, similar);
+        }
+        return similar;
+    }
+
+    /**
+     * Fills the edit distance row of one trie node from its parents' rows,
+     * as editDistance does for one word, and descends while some prefix of
+     * the query is still within maxEdits of the node's path
+     */
+    private static void walkSimilar(TrieNode node, char key, int depth, String token, int maxEdits,
+                                    int[][] rows, char[] path, List<Integer> similar) {
+        path[depth - 1] = key;
+        int[] previous = rows[depth - 1];
+        int[] current = rows[depth];
+        current[0] = depth;
+        int closest = depth;
+        for (int j = 1; j <= token.length(); j++) {
+            int cost = token.charAt(j - 1) == key ? 0 : 1;
+            current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            if (depth > 1 && j > 1 && token.charAt(j - 1) == path[depth - 2] && token.charAt(j - 2) == key) {
+                current[j] = Math.min(current[j], rows[depth - 2][j - 2] + 1);
+            }
+            closest = Math.min(closest, current[j]);
+        }
+        if (node.word != -1 && current[token.length()] <= maxEdits) {
+            similar.add(node.word);
+        }
+        if (closest > maxEdits || depth + 1 == rows.length) {
+            return;
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            walkSimilar(node.children[i], node.keys[i], depth + 1, token, maxEdits, rows, path, similar);
+        }
+    }
+
+    private static boolean startsEveryToken(String[] words, String[] tokens) {
+        for (String token : tokens) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the insertions, deletions, substitutions and swaps of
+     * neighbouring letters needed to turn one word into another
+     */
+    private static int editDistance(String a, String b) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Splits a name into lowercase words without accents
+     */
+    private static String[] words(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        String plain = name.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < plain.length(); i++) {
+            if (plain.charAt(i) > 0x7f) {
+                plain = COMBINING_MARKS.matcher(Normalizer.normalize(plain, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= plain.length(); i++) {
+            boolean wordChar = i < plain.length() && Character.isLetterOrDigit(plain.charAt(i));
+            if (wordChar && start == -1) {
+                start = i;
+            } else if (!wordChar && start != -1) {
+                words.add(plain.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+}
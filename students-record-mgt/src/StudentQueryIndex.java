@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * StudentQueryIndex Class
+ * Secondary indexes on age and grade for StudentManagement queries
+ *
+ * Ages are kept in a sorted map, so an age range is a sub-map rather
+ * than a scan; grades are kept in a hash map from the lowercase grade.
+ * Both map to the primary index keys (lowercase IDs) of the matching
+ * students. A query with both conditions walks whichever side has fewer
+ * candidates and checks the other condition per candidate.
+ *
+ * Each indexed student's age and grade key are remembered, so a student
+ * can be removed or re-indexed without knowing its old values.
+ */
+class StudentQueryIndex {
+    /**
+     * Indexed values of one student
+     */
+    private static final class Entry {
+        final int age;
+        final String gradeKey;
+
+        Entry(int age, String gradeKey) {
+            this.age = age;
+            this.gradeKey = gradeKey;
+        }
+    }
+
+    private TreeMap<Integer, Set<String>> idsByAge = new TreeMap<>();
+    private HashMap<String, Set<String>> idsByGrade = new HashMap<>();
+    private HashMap<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Builds the index key for a grade
+     * Grades are matched case-insensitively
+     * @param grade Grade as entered
+     * @return Lowercase, trimmed form of the grade
+     */
+    static String gradeKey(String grade) {
+        return grade.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a student to the indexes, replacing any previous entry
+     * @param student Student to index
+     */
+    public void add(Student student) {
+        String id = StudentRecordStore.indexKey(student.getStudentId());
+        remove(student.getStudentId());
+        Entry entry = new Entry(student.getAge(), gradeKey(student.getGrade()));
+        entries.put(id, entry);
+        idsByAge.computeIfAbsent(entry.age, age -> new LinkedHashSet<>()).add(id);
+        idsByGrade.computeIfAbsent(entry.gradeKey, grade -> new LinkedHashSet<>()).add(id);
+    }
+
+    /**
+     * Re-indexes a student after its age or grade changed
+     * @param student Changed student
+     */
+    public void update(Student student) {
+        add(student);
+    }
+
+    /**
+     * Removes a student from the indexes
+     * @param studentId ID of the student to remove
+     */
+    public void remove(String studentId) {
+        String id = StudentRecordStore.indexKey(studentId);
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        removeFrom(idsByAge.get(entry.age), id);
+        if (idsByAge.get(entry.age).isEmpty()) {
+            idsByAge.remove(entry.age);
+        }
+        removeFrom(idsByGrade.get(entry.gradeKey), id);
+        if (idsByGrade.get(entry.gradeKey).isEmpty()) {
+            idsByGrade.remove(entry.gradeKey);
+        }
+    }
+
+    /**
+     * Removes every student from the indexes
+     */
+    public void clear() {
+        idsByAge.clear();
+        idsByGrade.clear();
+        entries.clear();
+    }
+
+    /**
+     * Finds the students matching an age range and a grade
+     * @param minAge Lowest age to include (-1 for no lower bound)
+     * @param maxAge Highest age to include (-1 for no upper bound)
+     * @param grade Grade to match (null or empty for any grade)
+     * @return Primary index keys of the matching students, youngest first
+     *         when only ages are given
+     */
+    public List<String> find(int minAge, int maxAge, String grade) {
+        int low = minAge == -1 ? Integer.MIN_VALUE : minAge;
+        int high = maxAge == -1 ? Integer.MAX_VALUE : maxAge;
+        List<String> result = new ArrayList<>();
+        if (low > high) {
+            return result;
+        }
+        Collection<Set<String>> ageBuckets = idsByAge.subMap(low, true, high, true).values();
+
+        if (grade == null || grade.trim().isEmpty()) {
+            for (Set<String> bucket : ageBuckets) {
+                result.addAll(bucket);
+            }
+            return result;
+        }
+
+        Set<String> gradeIds = idsByGrade.get(gradeKey(grade));
+        if (gradeIds == null) {
+            return result;
+        }
+
+        // Walk the smaller side and check the other condition per student
+        long ageCandidates = 0;
+        for (Set<String> bucket : ageBuckets) {
+            ageCandidates += bucket.size();
+            if (ageCandidates > gradeIds.size()) {
+                break;
+            }
+        }
+        if (gradeIds.size() <= ageCandidates) {
+            for (String id : gradeIds) {
+                int age = entries.get(id).age;
+                if (age >= low && age <= high) {
+                    result.add(id);
+                }
+            }
+        } else {
+            for (Set<String> bucket : ageBuckets) {
+                for (String id : bucket) {
+                    if (gradeIds.contains(id)) {
+                        result.add(id);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void removeFrom(Set<String> ids, String id) {
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+}
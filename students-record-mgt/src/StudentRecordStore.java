@@ -0,0 +1,197 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * StudentRecordStore Class
+ * In-memory StudentStore holding records in insertion order
+ *
+ * Records live in an array of slots. Deleting a record only clears its
+ * slot (a tombstone) and its index entry, so nothing is shifted and a
+ * delete costs O(1). Compaction closes the gaps in one pass and fixes up
+ * the index; it runs on demand, and automatically once tombstones
+ * outnumber live records. Records always keep their insertion order.
+ */
+class StudentRecordStore implements StudentStore {
+    // Compaction is not worth a pass below this many tombstones
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    // Record slots in insertion order; null marks a deleted record
+    private Student[] slots = new Student[16];
+    private int slotCount = 0;
+    private int liveCount = 0;
+
+    // Primary index: lowercase student ID to slot
+    private HashMap<String, Integer> slotById = new HashMap<>();
+
+    /**
+     * Builds the primary index key for a student ID
+     * IDs are matched case-insensitively
+     * @param studentId Student ID as entered
+     * @return Lowercase form of the ID
+     */
+    static String indexKey(String studentId) {
+        return studentId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Appends a record
+     * @param student Student to store; its ID must not be stored yet
+     */
+    @Override
+    public void add(Student student) {
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slotCount * 2);
+        }
+        slots[slotCount] = student;
+        slotById.put(indexKey(student.getStudentId()), slotCount);
+        slotCount++;
+        liveCount++;
+    }
+
+    /**
+     * Finds a record by ID
+     * @param studentId ID to search for
+     * @return Student object if found, null otherwise
+     */
+    @Override
+    public Student get(String studentId) {
+        if (studentId == null) {
+            return null;
+        }
+        Integer slot = slotById.get(indexKey(studentId));
+        return slot == null ? null : slots[slot];
+    }
+
+    /**
+     * Records are held as objects, so changes to them are already stored
+     * @param student Changed student
+     */
+    @Override
+    public void update(Student student) {
+    }
+
+    /**
+     * Deletes a record by ID, leaving a tombstone in its slot
+     * @param studentId ID of the record to delete
+     * @return The deleted student, or null if not found
+     */
+    @Override
+    public Student remove(String studentId) {
+        if (studentId == null) {
+            return null;
+        }
+        Integer slot = slotById.remove(indexKey(studentId));
+        if (slot == null) {
+            return null;
+        }
+        Student removed = slots[slot];
+        slots[slot] = null;
+        liveCount--;
+        compactIfSparse();
+        return removed;
+    }
+
+    /**
+     * Deletes every record matching a condition, compacting in the same pass
+     * @param condition Condition a record must meet to be deleted
+     * @return Number of records deleted
+     */
+    @Override
+    public int removeIf(Predicate<Student> condition) {
+        int removed = 0;
+        int write = 0;
+        for (int read = 0; read < slotCount; read++) {
+            Student student = slots[read];
+            if (student == null) {
+                continue;
+            }
+            if (condition.test(student)) {
+                slotById.remove(indexKey(student.getStudentId()));
+                removed++;
+                continue;
+            }
+            if (write != read) {
+                slots[write] = student;
+                slotById.put(indexKey(student.getStudentId()), write);
+            }
+            write++;
+        }
+        Arrays.fill(slots, write, slotCount, null);
+        slotCount = write;
+        liveCount -= removed;
+        return removed;
+    }
+
+    /**
+     * Closes the gaps left by deleted records
+     */
+    @Override
+    public void compact() {
+        removeIf(student -> false);
+    }
+
+    /**
+     * Returns the number of stored records
+     * @return Live record count
+     */
+    @Override
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Returns the number of slots held by deleted records
+     * @return Tombstone count
+     */
+    public int getTombstoneCount() {
+        return slotCount - liveCount;
+    }
+
+    /**
+     * Iterates over the records in insertion order, skipping deleted ones
+     * @return Record iterator
+     */
+    @Override
+    public Iterator<Student> iterator() {
+        return new Iterator<Student>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < slotCount && slots[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < slotCount;
+            }
+
+            @Override
+            public Student next() {
+                if (next >= slotCount) {
+                    throw new NoSuchElementException();
+                }
+                Student student = slots[next];
+                next = advance(next + 1);
+                return student;
+            }
+        };
+    }
+
+    /**
+     * Compacts once tombstones outnumber live records, so deletes stay
+     * O(1) amortized and the slot array never grows unbounded
+     */
+    private void compactIfSparse() {
+        int tombstones = slotCount - liveCount;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > liveCount) {
+            compact();
+        }
+    }
+}
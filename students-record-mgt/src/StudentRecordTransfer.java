@@ -0,0 +1,439 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * StudentRecordTransfer Class
+ * Streams student records between StudentManagement and CSV or binary files
+ *
+ * Imports run as a pipeline: the calling thread reads rows in chunks,
+ * a pool of worker threads parses and validates the chunks in parallel,
+ * and the calling thread stores the results in file order. Only a few
+ * chunks are in flight at once, so memory use does not depend on the
+ * file size. Rows breaking a rule are counted and reported; they never
+ * stop the import.
+ *
+ * CSV files have a header line followed by studentId,name,age,grade rows;
+ * fields containing commas, quotes or line breaks are quoted, and a quoted
+ * field may continue over several lines. Binary files start with a magic
+ * number, followed by one marker byte and the four fields per record, and
+ * end with a zero marker byte.
+ */
+class StudentRecordTransfer {
+    private static final String CSV_HEADER = "studentId,name,age,grade";
+    private static final int BINARY_MAGIC = 0x53524D31; // "SRM1"
+    private static final int CHUNK_SIZE = 4096;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // A quoted field may continue onto further lines only while its record
+    // stays this short; past that the first line is rejected on its own
+    private static final int MAX_RECORD_LENGTH = 1024;
+
+    /**
+     * One record on its way through the pipeline
+     */
+    private static final class Row {
+        long lineNumber;
+        String text;
+        String studentId;
+        String name;
+        int age;
+        String grade;
+        String error;
+    }
+
+    /**
+     * Supplies the next chunk of rows, or null at the end of the input
+     */
+    private interface ChunkReader {
+        Row[] next() throws IOException;
+    }
+
+    /**
+     * ImportReport Class
+     * Outcome of one import: accepted and rejected counts, and the first
+     * rejected rows with their reasons
+     */
+    static class ImportReport {
+        // Only this many rejected rows are kept, so huge files stay in bounded memory
+        public static final int MAX_REJECTED_ROWS = 100;
+
+        private long accepted = 0;
+        private long rejected = 0;
+        private List<String> rejectedRows = new ArrayList<>();
+
+        private void reject(Row row) {
+            rejected++;
+            if (rejectedRows.size() < MAX_REJECTED_ROWS) {
+                rejectedRows.add("Row " + row.lineNumber + ": " + row.error);
+            }
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Returns the first rejected rows with their reasons
+         * @return Up to MAX_REJECTED_ROWS descriptions
+         */
+        public List<String> getRejectedRows() {
+            return rejectedRows;
+        }
+
+        /**
+         * Displays the import outcome in a formatted manner
+         */
+        public void displayInfo() {
+            System.out.println("\nStudents imported: " + accepted);
+            System.out.println("Rows rejected:     " + rejected);
+            for (String row : rejectedRows) {
+                System.out.println("  " + row);
+            }
+            if (rejected > rejectedRows.size()) {
+                System.out.println("  ... and " + (rejected - rejectedRows.size()) + " more");
+            }
+        }
+    }
+
+    /**
+     * Imports students from a CSV file
+     * @param file CSV file with a header line
+     * @return Import outcome
+     * @throws IOException if the file cannot be read
+     */
+    public static ImportReport importCsv(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            long[] lineNumber = {1};
+            if (header != null && !header.trim().equalsIgnoreCase(CSV_HEADER)) {
+                throw new IOException("Not a student CSV file: expected header \"" + CSV_HEADER + "\"");
+            }
+            return runImport(() -> {
+                if (header == null) {
+                    return null;
+                }
+                List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (chunk.size() < CHUNK_SIZE) {
+                    // Lets readRecord go back to the start of a multi-line record
+                    reader.mark(MAX_RECORD_LENGTH + 1);
+                    String line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    lineNumber[0]++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    Row row = new Row();
+                    row.lineNumber = lineNumber[0];
+                    row.text = readRecord(reader, line, lineNumber);
+                    chunk.add(row);
+                }
+                return chunk.isEmpty() ? null : chunk.toArray(new Row[0]);
+            });
+        }
+    }
+
+    /**
+     * Completes a CSV record whose quoted field spans several lines. The
+     * record is read again from the reader's mark at its first line, so
+     * the line breaks inside the field are kept exactly as written.
+     * @param first The record's first line
+     * @param lineNumber Number of the last line read, advanced per extra line
+     * @return The whole record, or just the first line if the quote is not
+     *         closed within MAX_RECORD_LENGTH characters; reading then
+     *         continues with the next line
+     */
+    private static String readRecord(BufferedReader reader, String first, long[] lineNumber) throws IOException {
+        if (!insideQuotes(first, false) || first.length() >= MAX_RECORD_LENGTH) {
+            return first;
+        }
+        reader.reset();
+        StringBuilder record = new StringBuilder();
+        boolean quoted = false;
+        int extraLines = 0;
+        int previous = -1;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (!quoted && (c == '\n' || c == '\r')) {
+                // End of the record; a CR LF pair ends it too
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            }
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\r' || (c == '\n' && previous != '\r')) {
+                extraLines++;
+            }
+            record.append((char) c);
+            if (record.length() > MAX_RECORD_LENGTH) {
+                reader.reset();
+                reader.readLine();
+                return first;
+            }
+            previous = c;
+        }
+        lineNumber[0] += extraLines;
+        return record.toString();
+    }
+
+    /**
+     * Checks whether a line ends inside a quoted field
+     * @param quoted Whether the line starts inside a quoted field
+     */
+    private static boolean insideQuotes(String line, boolean quoted) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    /**
+     * Imports students from a binary file written by exportBinary
+     * @param file Binary student file
+     * @return Import outcome
+     * @throws IOException if the file cannot be read or is not a student file
+     */
+    public static ImportReport importBinary(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != BINARY_MAGIC) {
+                throw new IOException("Not a student binary file: " + file);
+            }
+            long[] recordNumber = {0};
+            boolean[] ended = {false};
+            return runImport(() -> {
+                List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (!ended[0] && chunk.size() < CHUNK_SIZE) {
+                    if (in.readByte() == 0) {
+                        ended[0] = true;
+                        break;
+                    }
+                    Row row = new Row();
+                    row.lineNumber = ++recordNumber[0];
+                    row.studentId = in.readUTF();
+                    row.name = in.readUTF();
+                    row.age = in.readInt();
+                    row.grade = in.readUTF();
+                    chunk.add(row);
+                }
+                return chunk.isEmpty() ? null : chunk.toArray(new Row[0]);
+            });
+        }
+    }
+
+    /**
+     * Exports all students to a CSV file
+     * @param file File to write, replaced if it exists
+     * @return Number of students written
+     * @throws IOException if the file cannot be written
+     */
+    public static long exportCsv(Path file) throws IOException {
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Student student : StudentManagement.getAllStudents()) {
+                writer.write(csvField(student.getStudentId()));
+                writer.write(',');
+                writer.write(csvField(student.getName()));
+                writer.write(',');
+                writer.write(Integer.toString(student.getAge()));
+                writer.write(',');
+                writer.write(csvField(student.getGrade()));
+                writer.newLine();
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Exports all students to a binary file
+     * @param file File to write, replaced if it exists
+     * @return Number of students written
+     * @throws IOException if the file cannot be written
+     */
+    public static long exportBinary(Path file) throws IOException {
+        long written = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            out.writeInt(BINARY_MAGIC);
+            for (Student student : StudentManagement.getAllStudents()) {
+                out.writeByte(1);
+                out.writeUTF(student.getStudentId());
+                out.writeUTF(student.getName());
+                out.writeInt(student.getAge());
+                out.writeUTF(student.getGrade());
+                written++;
+            }
+            out.writeByte(0);
+        }
+        return written;
+    }
+
+    /**
+     * Runs the read, parse and store stages of an import
+     */
+    private static ImportReport runImport(ChunkReader reader) throws IOException {
+        ImportReport report = new ImportReport();
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        ArrayDeque<Future<Row[]>> inFlight = new ArrayDeque<>();
+        try {
+            Row[] chunk;
+            while ((chunk = reader.next()) != null) {
+                Row[] rows = chunk;
+                inFlight.add(pool.submit(() -> parseChunk(rows)));
+                // Bound the chunks held in memory; store the oldest first
+                if (inFlight.size() > workers * 2) {
+                    storeChunk(inFlight.poll(), report);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                storeChunk(inFlight.poll(), report);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return report;
+    }
+
+    /**
+     * Parse stage: splits and validates every row of a chunk
+     * Runs on a worker thread, so it must not touch StudentManagement state
+     */
+    private static Row[] parseChunk(Row[] rows) {
+        for (Row row : rows) {
+            try {
+                if (row.text != null) {
+                    parseCsvRow(row);
+                }
+                if (row.studentId.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Student ID cannot be empty!");
+                }
+                if (row.name.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Student name cannot be empty!");
+                }
+                if (row.grade.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Grade cannot be empty!");
+                }
+                StudentManagement.validateStudent(row.name, row.age, row.grade);
+            } catch (IllegalArgumentException e) {
+                row.error = e.getMessage();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Store stage: adds a parsed chunk's valid rows, in file order
+     */
+    private static void storeChunk(Future<Row[]> parsed, ImportReport report) throws IOException {
+        Row[] rows;
+        try {
+            rows = parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed: " + e.getCause(), e.getCause());
+        }
+        for (Row row : rows) {
+            if (row.error == null) {
+                try {
+                    StudentManagement.storeStudent(new Student(row.name, row.studentId, row.age, row.grade));
+                    report.accepted++;
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    row.error = e.getMessage();
+                }
+            }
+            report.reject(row);
+        }
+    }
+
+    /**
+     * Splits one CSV record into the row's fields
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    private static void parseCsvRow(Row row) {
+        List<String> fields = new ArrayList<>(4);
+        String line = row.text;
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field!");
+        }
+        fields.add(field.toString());
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("Expected 4 fields but found " + fields.size() + "!");
+        }
+
+        row.studentId = fields.get(0).trim();
+        row.name = fields.get(1).trim();
+        try {
+            row.age = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Age must be a number!");
+        }
+        row.grade = fields.get(3).trim();
+    }
+
+    /**
+     * Quotes a CSV field if it contains a comma, a quote or a line break
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.function.Predicate;
+
+/**
+ * StudentStore Interface
+ * Storage behind StudentManagement: records with a primary index by ID
+ *
+ * IDs are matched case-insensitively. Implementations are not
+ * thread-safe; StudentManagement calls them from one thread at a time.
+ */
+interface StudentStore extends Iterable<Student> {
+    /**
+     * Stores a new record
+     * @param student Student to store; its ID must not be stored yet
+     */
+    void add(Student student);
+
+    /**
+     * Finds a record by ID
+     * @param studentId ID to search for
+     * @return Student object if found, null otherwise
+     */
+    Student get(String studentId);
+
+    /**
+     * Saves changes made to a student returned by get
+     * @param student Changed student
+     */
+    void update(Student student);
+
+    /**
+     * Deletes a record by ID
+     * @param studentId ID of the record to delete
+     * @return The deleted student, or null if not found
+     */
+    Student remove(String studentId);
+
+    /**
+     * Deletes every record matching a condition in one pass
+     * @param condition Condition a record must meet to be deleted
+     * @return Number of records deleted
+     */
+    int removeIf(Predicate<Student> condition);
+
+    /**
+     * Reclaims the space left by deleted records
+     */
+    void compact();
+
+    /**
+     * Returns the number of stored records
+     * @return Record count
+     */
+    int size();
+
+    /**
+     * Checks whether any records are stored
+     * @return true if there are no records
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Releases the store's resources; the store cannot be used afterwards
+     */
+    default void close() {
+    }
+}